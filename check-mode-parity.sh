@@ -0,0 +1,62 @@
+#!/bin/bash
+
+# Run the same CSV simulation in tick mode and in event mode and compare their SIMULATION_SUMMARY lines
+# (order counts per status and a digest of every SKU's quantity and reservation).
+# Uses the in-process transport, so no RabbitMQ is needed.
+#
+# Usage: ./check-mode-parity.sh [orders.csv]
+# Tick mode only matches if each tick's orders are processed before the next tick;
+# raise TICK_INTERVAL_MS for larger order files.
+
+JAR=target/inventory-simulator-1.0.0.jar
+CSV=${1:-data/orders_sample.csv}
+TICK_INTERVAL_MS=${TICK_INTERVAL_MS:-100}
+TIMEOUT_SECONDS=${TIMEOUT_SECONDS:-600}
+
+if [ ! -f "$JAR" ]; then
+    echo "Building $JAR..."
+    mvn -q -DskipTests package || exit 1
+fi
+
+COMMON_ARGS=(
+    --server.port=0
+    --inventory.messaging.transport=in-process
+    --inventory.order-injector.use-csv=true
+    --inventory.order-injector.csv-file="$CSV"
+    --inventory.load-generator.enabled=false
+    --inventory.simulation.tick-interval-ms="$TICK_INTERVAL_MS"
+)
+
+# Run one mode until it logs its summary, then stop it and print the summary
+run_mode() {
+    local mode=$1
+    local log=target/parity-$mode.log
+    java -jar "$JAR" "${COMMON_ARGS[@]}" --inventory.simulation.mode="$mode" > "$log" 2>&1 &
+    local pid=$!
+    local waited=0
+    until grep -q "SIMULATION_SUMMARY" "$log"; do
+        if ! kill -0 "$pid" 2>/dev/null || [ "$waited" -ge "$TIMEOUT_SECONDS" ]; then
+            kill "$pid" 2>/dev/null
+            echo "$mode run did not finish, see $log" >&2
+            return 1
+        fi
+        sleep 1
+        waited=$((waited + 1))
+    done
+    kill "$pid"
+    wait "$pid" 2>/dev/null
+    grep -o "SIMULATION_SUMMARY.*" "$log" | head -1
+}
+
+echo "Running tick mode..."
+TICK=$(run_mode tick) || exit 1
+echo "Running event mode..."
+EVENT=$(run_mode event) || exit 1
+
+echo "tick:  $TICK"
+echo "event: $EVENT"
+if [ "$TICK" != "$EVENT" ]; then
+    echo "Tick and event mode differ (logs in target/parity-tick.log and target/parity-event.log)"
+    exit 1
+fi
+echo "Tick and event mode match"
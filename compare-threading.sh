@@ -0,0 +1,69 @@
+#!/bin/bash
+
+# Run the same synthetic load on platform threads and then on virtual threads
+# (spring.threads.virtual.enabled) and print throughput and thread counts from /actuator/prometheus.
+# Needs a Java 21 runtime (set JAVA). Uses the in-process transport unless TRANSPORT=rabbit
+# (then a RabbitMQ broker must be running, and the Rabbit listener containers are exercised too).
+#
+# Usage: JAVA=/path/to/jdk21/bin/java ./compare-threading.sh
+
+JAR=target/inventory-simulator-1.0.0.jar
+JAVA=${JAVA:-java}
+TRANSPORT=${TRANSPORT:-in-process}
+RATE=${RATE:-500}
+PORT=${PORT:-18090}
+WARMUP_SECONDS=${WARMUP_SECONDS:-60}
+SAMPLE_SECONDS=${SAMPLE_SECONDS:-60}
+
+if [ ! -f "$JAR" ]; then
+    echo "Building $JAR..."
+    mvn -q -DskipTests package || exit 1
+fi
+
+COMMON_ARGS=(
+    --server.port="$PORT"
+    --inventory.messaging.transport="$TRANSPORT"
+    --inventory.order-injector.use-csv=false
+    --inventory.load-generator.enabled=true
+    --inventory.load-generator.orders-per-second="$RATE"
+)
+
+# Sum every sample of a Prometheus metric (all tag combinations)
+metric() {
+    echo "$2" | awk -v name="$1" '$1 == name || index($1, name "{") == 1 { sum += $NF } END { printf "%g", sum }'
+}
+
+# Start one mode, let it warm up, then sample the processed-order counter over SAMPLE_SECONDS
+run_mode() {
+    local virtual=$1
+    local log=target/threading-virtual-$virtual.log
+    "$JAVA" -jar "$JAR" "${COMMON_ARGS[@]}" --spring.threads.virtual.enabled="$virtual" > "$log" 2>&1 &
+    local pid=$!
+    sleep "$WARMUP_SECONDS"
+    if ! kill -0 "$pid" 2>/dev/null; then
+        echo "virtual=$virtual run did not start, see $log" >&2
+        return 1
+    fi
+    local before after
+    before=$(curl -s "localhost:$PORT/actuator/prometheus")
+    sleep "$SAMPLE_SECONDS"
+    after=$(curl -s "localhost:$PORT/actuator/prometheus")
+    kill "$pid"
+    wait "$pid" 2>/dev/null
+
+    local processed
+    processed=$(awk -v a="$(metric orders_processed_total "$after")" -v b="$(metric orders_processed_total "$before")" \
+        -v s="$SAMPLE_SECONDS" 'BEGIN { printf "%.1f", (a - b) / s }')
+    echo "virtual=$virtual target=$(metric load_generator_target_rate "$after")/s" \
+        "achieved=$(metric load_generator_achieved_rate "$after")/s processed=$processed/s" \
+        "live_threads=$(metric jvm_threads_live_threads "$after") peak_threads=$(metric jvm_threads_peak_threads "$after")" \
+        "cpu=$(metric process_cpu_usage "$after")"
+}
+
+echo "Running on platform threads..."
+PLATFORM=$(run_mode false) || exit 1
+echo "Running on virtual threads..."
+VIRTUAL=$(run_mode true) || exit 1
+
+echo "$PLATFORM"
+echo "$VIRTUAL"
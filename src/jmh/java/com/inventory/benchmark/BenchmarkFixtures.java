@@ -0,0 +1,132 @@
+package com.inventory.benchmark;
+
+import com.inventory.journal.InventoryEventLog;
+import com.inventory.journal.OrderEventJournal;
+import com.inventory.message.InventoryCommandMessage;
+import com.inventory.message.OrderReceivedMessage;
+import com.inventory.messaging.InventoryPartitioner;
+import com.inventory.messaging.SimulationMessageBus;
+import com.inventory.model.Order;
+import com.inventory.repository.OrderRepository;
+import com.inventory.service.InventoryLedger;
+import com.inventory.service.InventoryManager;
+import com.inventory.service.OptimisticRetryExecutor;
+import com.inventory.service.OrderFlowTracker;
+import com.inventory.service.OrderIntakeFilter;
+import com.inventory.service.OrderManager;
+import com.inventory.service.OrderMetrics;
+import com.inventory.service.ReplenishmentPlanner;
+import com.inventory.service.ReservationEngine;
+import com.inventory.service.SimulationClock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wires the order and inventory services without Spring, RabbitMQ or a database.
+ * Inventory updates are delivered synchronously to InventoryManager, standing in for the broker.
+ */
+final class BenchmarkFixtures {
+
+    static final int SKU_COUNT = 1_000;
+
+    final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    final SimulationClock simulationClock = new SimulationClock();
+    final InventoryLedger inventoryLedger;
+    final InventoryManager inventoryManager;
+    final OrderManager orderManager;
+
+    BenchmarkFixtures() {
+        ReflectionTestUtils.setField(simulationClock, "simStartTimeStr", "2024-01-13T08:00:00");
+        ReflectionTestUtils.setField(simulationClock, "simEndTimeStr", "2024-01-13T18:00:00");
+        ReflectionTestUtils.setField(simulationClock, "tickSeconds", 1);
+        ReflectionTestUtils.setField(simulationClock, "speedFactor", 1.0);
+        ReflectionTestUtils.setField(simulationClock, "mode", "tick");
+        simulationClock.initialize();
+
+        OptimisticRetryExecutor optimisticRetry = new OptimisticRetryExecutor(meterRegistry);
+        ReflectionTestUtils.setField(optimisticRetry, "maxAttempts", 5);
+        ReflectionTestUtils.setField(optimisticRetry, "initialBackoffMs", 5L);
+        ReflectionTestUtils.setField(optimisticRetry, "maxBackoffMs", 200L);
+        ReflectionTestUtils.setField(optimisticRetry, "skuTagLimit", 50);
+        optimisticRetry.registerMetrics();
+
+        // Inventory event log disabled: benchmarks measure the ledger, and restart recovery is not exercised
+        InventoryEventLog inventoryEventLog = new InventoryEventLog(meterRegistry);
+        ReflectionTestUtils.setField(inventoryEventLog, "enabled", false);
+        inventoryEventLog.open();
+
+        inventoryLedger = new InventoryLedger(InMemoryRepositories.inventoryItems(), meterRegistry, optimisticRetry,
+                inventoryEventLog);
+        ReflectionTestUtils.setField(inventoryLedger, "initialStock", 1_000_000);
+        ReflectionTestUtils.setField(inventoryLedger, "lowStockThreshold", 100);
+        ReflectionTestUtils.setField(inventoryLedger, "flushBatchSize", 500);
+        inventoryLedger.registerMetrics();
+
+        ReplenishmentPlanner replenishmentPlanner = new ReplenishmentPlanner(inventoryLedger, simulationClock, meterRegistry);
+        ReflectionTestUtils.setField(replenishmentPlanner, "replenishmentQuantity", 500);
+        ReflectionTestUtils.setField(replenishmentPlanner, "batchSize", 100);
+        ReflectionTestUtils.setField(replenishmentPlanner, "leadTimeMinutes", 30L);
+        replenishmentPlanner.registerMetrics();
+
+        OrderFlowTracker orderFlowTracker = new OrderFlowTracker();
+        inventoryManager = new InventoryManager(inventoryLedger, replenishmentPlanner, orderFlowTracker);
+        ReflectionTestUtils.setField(inventoryManager, "replenishmentQuantity", 500);
+        // Orders never create SKUs, so seed the catalogue as the CSV initializer would
+        for (int i = 0; i < SKU_COUNT; i++) {
+            inventoryManager.initializeInventory(sku(i), 1_000_000, "AMBIENT");
+        }
+
+        InventoryPartitioner inventoryPartitioner = new InventoryPartitioner();
+        ReflectionTestUtils.setField(inventoryPartitioner, "topicPrefix", "sim");
+        ReflectionTestUtils.setField(inventoryPartitioner, "partitions", 1);
+
+        SimulationMessageBus directBus = (routingKey, message) -> {
+            if (message instanceof InventoryCommandMessage command) {
+                inventoryManager.handleInventoryCommand(command);
+            }
+        };
+        // Journal into a temp file, as in a real run (records wrap around the ring)
+        OrderEventJournal orderEventJournal = new OrderEventJournal(meterRegistry);
+        ReflectionTestUtils.setField(orderEventJournal, "enabled", true);
+        ReflectionTestUtils.setField(orderEventJournal, "path",
+                System.getProperty("java.io.tmpdir") + "/benchmark-order-events.journal");
+        ReflectionTestUtils.setField(orderEventJournal, "capacity", 65_536);
+        orderEventJournal.open();
+
+        OrderMetrics orderMetrics = new OrderMetrics(meterRegistry);
+        ReflectionTestUtils.setField(orderMetrics, "knownZones", List.of("AMBIENT", "CHILLED", "FROZEN"));
+        orderMetrics.registerMetrics();
+
+        OrderRepository orderRepository = InMemoryRepositories.orders();
+        OrderIntakeFilter orderIntakeFilter = new OrderIntakeFilter(orderRepository, meterRegistry);
+        ReflectionTestUtils.setField(orderIntakeFilter, "enabled", true);
+        ReflectionTestUtils.setField(orderIntakeFilter, "expectedOrders", 1_000_000L);
+        ReflectionTestUtils.setField(orderIntakeFilter, "falsePositiveRate", 0.01);
+        orderIntakeFilter.initialize();
+
+        orderManager = new OrderManager(orderRepository, new ReservationEngine(inventoryLedger), directBus,
+                simulationClock, orderMetrics, orderFlowTracker, inventoryPartitioner, orderEventJournal,
+                orderIntakeFilter);
+        ReflectionTestUtils.setField(orderManager, "topicPrefix", "sim");
+        ReflectionTestUtils.setField(orderManager, "auditTrailEnabled", false);
+    }
+
+    static String sku(int index) {
+        return String.format("SKU-%05d", index % SKU_COUNT);
+    }
+
+    static OrderReceivedMessage order(String orderId, int lines, int firstSku) {
+        List<OrderReceivedMessage.OrderItemDTO> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            items.add(new OrderReceivedMessage.OrderItemDTO(sku(firstSku + i * 7), 1 + i % 3, "AMBIENT"));
+        }
+        LocalDateTime placed = LocalDateTime.of(2024, 1, 13, 8, 0);
+        return new OrderReceivedMessage(orderId, Order.OrderType.PICKUP, placed, placed.plusHours(4),
+                items, "CUST-001", "Benchmark");
+    }
+}
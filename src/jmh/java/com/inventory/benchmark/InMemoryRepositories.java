@@ -0,0 +1,106 @@
+package com.inventory.benchmark;
+
+import com.inventory.model.InventoryItem;
+import com.inventory.model.Order;
+import com.inventory.repository.InventoryItemRepository;
+import com.inventory.repository.OrderRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Map-backed stand-ins for the JPA repositories (only the methods the hot paths call)
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    static InventoryItemRepository inventoryItems() {
+        Map<String, InventoryItem> itemsBySku = new ConcurrentHashMap<>();
+        AtomicLong ids = new AtomicLong();
+        return proxy(InventoryItemRepository.class, (method, args) -> {
+            switch (method) {
+                case "findBySku":
+                    return Optional.ofNullable(itemsBySku.get((String) args[0]));
+                case "findBySkuIn":
+                    return ((Collection<?>) args[0]).stream()
+                            .map(itemsBySku::get)
+                            .filter(Objects::nonNull)
+                            .collect(Collectors.toList());
+                case "findExistingSkus":
+                    return ((Collection<?>) args[0]).stream()
+                            .filter(itemsBySku::containsKey)
+                            .map(String.class::cast)
+                            .collect(Collectors.toSet());
+                case "save":
+                    return saveItem(itemsBySku, ids, (InventoryItem) args[0]);
+                case "saveAll":
+                    for (Object item : (Iterable<?>) args[0]) {
+                        saveItem(itemsBySku, ids, (InventoryItem) item);
+                    }
+                    return args[0];
+                default:
+                    throw new UnsupportedOperationException(method);
+            }
+        });
+    }
+
+    /**
+     * Orders are only assigned ids, not retained, so long benchmark runs do not grow the heap
+     */
+    static OrderRepository orders() {
+        AtomicLong ids = new AtomicLong();
+        return proxy(OrderRepository.class, (method, args) -> {
+            switch (method) {
+                case "findByOrderId":
+                    return Optional.empty();
+                case "existsByOrderId":
+                    return false;
+                case "save":
+                    Order order = (Order) args[0];
+                    if (order.getId() == null) {
+                        order.setId(ids.incrementAndGet());
+                    }
+                    return order;
+                default:
+                    throw new UnsupportedOperationException(method);
+            }
+        });
+    }
+
+    private static InventoryItem saveItem(Map<String, InventoryItem> itemsBySku, AtomicLong ids, InventoryItem item) {
+        if (item.getId() == null) {
+            item.setId(ids.incrementAndGet());
+        }
+        itemsBySku.put(item.getSku(), item);
+        return item;
+    }
+
+    private interface Handler {
+        Object invoke(String method, Object[] args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        return type.getSimpleName() + "(in-memory)";
+                }
+            }
+            return handler.invoke(method.getName(), args);
+        });
+    }
+}
@@ -0,0 +1,98 @@
+package com.inventory.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Listener threading model in isolation: platform consumer pool vs. the VirtualThreadTaskExecutor that
+ * RabbitMQConfig installs with spring.threads.virtual.enabled. Each task stands in for one delivery
+ * (some CPU, then a 1 ms blocking wait for the H2/broker round trip); at most {@code concurrency} are in flight.
+ * The virtual mode needs a Java 21 runtime. Peak platform threads are printed once per trial.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListenerThreadingBenchmark {
+
+    private static final int TASKS_PER_INVOCATION = 2_048;
+    private static final long BLOCKING_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Param({"platform", "virtual"})
+    private String threading;
+
+    @Param({"8", "64", "512", "2048"})
+    private int concurrency;
+
+    private ExecutorService platformPool;
+    private Executor executor;
+    private Semaphore inFlight;
+    private ThreadMXBean threads;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("virtual".equals(threading)) {
+            executor = new VirtualThreadTaskExecutor("rabbit-listener-");
+        } else {
+            platformPool = Executors.newFixedThreadPool(concurrency);
+            executor = platformPool;
+        }
+        inFlight = new Semaphore(concurrency);
+        threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n%s, concurrency %d: peak platform threads=%d%n",
+                threading, concurrency, threads.getPeakThreadCount());
+        if (platformPool != null) {
+            platformPool.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TASKS_PER_INVOCATION)
+    public void deliveries() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(TASKS_PER_INVOCATION);
+        for (int i = 0; i < TASKS_PER_INVOCATION; i++) {
+            inFlight.acquire();
+            executor.execute(() -> {
+                try {
+                    Blackhole.consumeCPU(2_000);
+                    LockSupport.parkNanos(BLOCKING_WAIT_NANOS);
+                } finally {
+                    inFlight.release();
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+}
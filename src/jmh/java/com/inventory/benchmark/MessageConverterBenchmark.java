@@ -0,0 +1,93 @@
+package com.inventory.benchmark;
+
+import com.inventory.config.RabbitMQConfig;
+import com.inventory.message.OrderReceivedMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON (Jackson2JsonMessageConverter, configured as in RabbitMQConfig) vs. compact binary round trip
+ * for OrderReceivedMessage. Encoded sizes are printed once per trial.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MessageConverterBenchmark {
+
+    @Param({"1", "20"})
+    private int linesPerOrder;
+
+    private MessageConverter jsonConverter;
+    private MessageConverter binaryConverter;
+    private OrderReceivedMessage order;
+    private Message encodedOrder;
+    private Message binaryEncodedOrder;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RabbitMQConfig config = new RabbitMQConfig();
+        jsonConverter = config.jsonMessageConverter();
+        binaryConverter = config.binaryMessageConverter();
+        order = BenchmarkFixtures.order("ORD-000001", linesPerOrder, 0);
+        encodedOrder = toMessage(jsonConverter);
+        binaryEncodedOrder = toMessage(binaryConverter);
+
+        System.out.printf("%nOrderReceivedMessage with %d lines: json=%d bytes, binary=%d bytes%n",
+                linesPerOrder, encodedOrder.getBody().length, binaryEncodedOrder.getBody().length);
+    }
+
+    @Benchmark
+    public Message jsonEncode() {
+        return toMessage(jsonConverter);
+    }
+
+    @Benchmark
+    public Object jsonDecode() {
+        return jsonConverter.fromMessage(encodedOrder);
+    }
+
+    @Benchmark
+    public Object jsonRoundTrip() {
+        return jsonConverter.fromMessage(toMessage(jsonConverter));
+    }
+
+    @Benchmark
+    public Message binaryEncode() {
+        return toMessage(binaryConverter);
+    }
+
+    @Benchmark
+    public Object binaryDecode() {
+        return binaryConverter.fromMessage(binaryEncodedOrder);
+    }
+
+    @Benchmark
+    public Object binaryRoundTrip() {
+        return binaryConverter.fromMessage(toMessage(binaryConverter));
+    }
+
+    private Message toMessage(MessageConverter converter) {
+        Message message = converter.toMessage(order, new MessageProperties());
+        // Listeners resolve the payload type from the handler parameter
+        message.getMessageProperties().setInferredArgumentType(OrderReceivedMessage.class);
+        return message;
+    }
+}
@@ -0,0 +1,68 @@
+package com.inventory.benchmark;
+
+import com.inventory.model.OrderCSVRecord;
+import com.inventory.service.OrderCSVReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderCSVReader parsing a generated long-format order file
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderCsvParsingBenchmark {
+
+    @Param({"10000"})
+    private int rows;
+
+    private final OrderCSVReader csvReader = new OrderCSVReader();
+    private Path csvFile;
+
+    @Setup(Level.Trial)
+    public void writeCsv() throws IOException {
+        csvFile = Files.createTempFile("orders-benchmark", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8)) {
+            writer.write("ORDER_ID,ORDER_TYPE,ORDER_PLACED_TIME,ORDER_DUE_TIME,CUSTOMER_ID,SKU,QUANTITY,TEMPERATURE_ZONE");
+            writer.newLine();
+            for (int i = 0; i < rows; i++) {
+                int order = i / 4;
+                writer.write(String.format("ORD-%06d,PICKUP,2024-01-13T08:%02d:00,2024-01-13T12:00:00,CUST-%03d,%s,%d,AMBIENT",
+                        order, order % 60, order % 500, BenchmarkFixtures.sku(i), 1 + i % 3));
+                writer.newLine();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteCsv() throws IOException {
+        Files.deleteIfExists(csvFile);
+    }
+
+    @Benchmark
+    public List<OrderCSVRecord> readOrdersFromCSV() {
+        return csvReader.readOrdersFromCSV(csvFile.toString());
+    }
+}
@@ -0,0 +1,65 @@
+package com.inventory.benchmark;
+
+import com.inventory.message.InventoryCommandMessage;
+import com.inventory.message.InventoryUpdateMessage;
+import com.inventory.message.OrderReceivedMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderManager.handleOrderReceived and InventoryManager.handleInventoryCommand with in-memory stand-ins
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderPipelineBenchmark {
+
+    @Param({"1", "5", "20"})
+    private int linesPerOrder;
+
+    private BenchmarkFixtures fixtures;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixtures = new BenchmarkFixtures();
+    }
+
+    @Benchmark
+    public void handleOrderReceived() {
+        long id = sequence++;
+        OrderReceivedMessage order = BenchmarkFixtures.order("ORD-" + id, linesPerOrder, (int) id);
+        fixtures.orderManager.handleOrderReceived(order);
+    }
+
+    @Benchmark
+    public void handleInventoryCommand() {
+        long id = sequence++;
+        List<InventoryUpdateMessage> lines = new ArrayList<>(linesPerOrder);
+        for (int i = 0; i < linesPerOrder; i++) {
+            InventoryUpdateMessage line = new InventoryUpdateMessage();
+            line.setSku(BenchmarkFixtures.sku((int) id + i));
+            line.setOperation(id % 2 == 0 ? "DEDUCT" : "REPLENISH");
+            line.setQuantityChange(1);
+            lines.add(line);
+        }
+        fixtures.inventoryManager.handleInventoryCommand(new InventoryCommandMessage("ORD-" + id, lines));
+    }
+}
@@ -0,0 +1,139 @@
+package com.inventory.config;
+
+import com.inventory.message.InventoryCommandMessage;
+import com.inventory.messaging.InventoryPartitioner;
+import com.inventory.service.InventoryManager;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.BatchMessageListener;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageListener;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.annotation.RabbitListenerConfigurer;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistrar;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * SKU-partitioned inventory update queues: one queue and one single-threaded consumer per partition.
+ * Per-SKU ordering is kept because a SKU always hashes to the same partition.
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnExpression("${inventory.messaging.inventory-partitions:1} > 1 and '${inventory.messaging.transport:rabbit}' == 'rabbit'")
+public class InventoryPartitionConfig implements RabbitListenerConfigurer {
+
+    private final InventoryPartitioner partitioner;
+    private final InventoryManager inventoryManager;
+    private final MessageConverter messageConverter;
+    private final MeterRegistry meterRegistry;
+    private final AmqpAdmin amqpAdmin;
+    private final TopicExchange simulationExchange;
+    private final SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory;
+    private final SimpleRabbitListenerContainerFactory inventoryBatchListenerContainerFactory;
+
+    @Value("${inventory.inventory.batch.enabled:false}")
+    private boolean batchEnabled;
+
+    private AtomicLongArray sampledDepths;
+
+    @Bean
+    public Declarables inventoryPartitionDeclarables() {
+        List<Declarable> declarables = new ArrayList<>();
+        for (int partition = 0; partition < partitioner.getPartitions(); partition++) {
+            String name = partitioner.partitionRoutingKey(partition);
+            Queue queue = QueueBuilder.durable(name).build();
+            Binding binding = BindingBuilder.bind(queue).to(simulationExchange).with(name);
+            declarables.add(queue);
+            declarables.add(binding);
+        }
+        return new Declarables(declarables);
+    }
+
+    /**
+     * Register one listener container per partition queue
+     */
+    @Override
+    public void configureRabbitListeners(RabbitListenerEndpointRegistrar registrar) {
+        int partitions = partitioner.getPartitions();
+        sampledDepths = new AtomicLongArray(partitions);
+
+        for (int partition = 0; partition < partitions; partition++) {
+            String tag = String.valueOf(partition);
+            Counter throughput = meterRegistry.counter("inventory_partition_messages_total", "partition", tag);
+            final int index = partition;
+            Gauge.builder("inventory_partition_depth", sampledDepths, depths -> depths.get(index))
+                    .description("Messages waiting in the inventory update partition queue")
+                    .tag("partition", tag)
+                    .register(meterRegistry);
+
+            SimpleRabbitListenerEndpoint endpoint = new SimpleRabbitListenerEndpoint();
+            endpoint.setId("inventory-partition-" + partition);
+            endpoint.setQueueNames(partitioner.partitionRoutingKey(partition));
+            endpoint.setConcurrency("1");
+            if (batchEnabled) {
+                endpoint.setMessageListener((BatchMessageListener) messages -> {
+                    List<InventoryCommandMessage> commands = new ArrayList<>(messages.size());
+                    for (Message message : messages) {
+                        commands.add(convert(message));
+                    }
+                    inventoryManager.handleInventoryCommandBatch(commands);
+                    throughput.increment(messages.size());
+                });
+                registrar.registerEndpoint(endpoint, inventoryBatchListenerContainerFactory);
+            } else {
+                endpoint.setMessageListener((MessageListener) message -> {
+                    inventoryManager.handleInventoryCommand(convert(message));
+                    throughput.increment();
+                });
+                registrar.registerEndpoint(endpoint, rabbitListenerContainerFactory);
+            }
+        }
+        log.info("Registered {} inventory update partition consumers", partitions);
+    }
+
+    private InventoryCommandMessage convert(Message message) {
+        message.getMessageProperties().setInferredArgumentType(InventoryCommandMessage.class);
+        return (InventoryCommandMessage) messageConverter.fromMessage(message);
+    }
+
+    /**
+     * Sample partition queue depths from the broker (kept off the scrape path)
+     */
+    @Scheduled(fixedDelayString = "${inventory.messaging.partition-depth-sample-ms:5000}")
+    public void sampleDepths() {
+        if (sampledDepths == null) {
+            return;
+        }
+        for (int partition = 0; partition < sampledDepths.length(); partition++) {
+            try {
+                QueueInformation info = amqpAdmin.getQueueInfo(partitioner.partitionRoutingKey(partition));
+                sampledDepths.set(partition, info != null ? info.getMessageCount() : 0);
+            } catch (Exception e) {
+                log.debug("Failed to sample depth of inventory partition {}: {}", partition, e.getMessage());
+            }
+        }
+    }
+}
@@ -2,16 +2,24 @@ package com.inventory.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.inventory.messaging.CompactBinaryMessageConverter;
+import jakarta.annotation.PostConstruct;
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.batch.SimpleBatchingStrategy;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.BatchingRabbitTemplate;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 @Configuration
 public class RabbitMQConfig {
@@ -22,6 +30,45 @@ public class RabbitMQConfig {
     @Value("${spring.rabbitmq.topic.prefix:sim}")
     private String topicPrefix;
 
+    @Value("${inventory.messaging.codec:json}")
+    private String codec;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${inventory.messaging.transport:rabbit}")
+    private String transport;
+
+    @Value("${inventory.messaging.confirms.enabled:true}")
+    private boolean confirmsEnabled;
+
+    @Value("${inventory.messaging.publish-batch.enabled:false}")
+    private boolean publishBatchEnabled;
+
+    @Value("${inventory.messaging.publish-batch.size:100}")
+    private int publishBatchSize;
+
+    @Value("${inventory.messaging.publish-batch.buffer-limit:65536}")
+    private int publishBatchBufferLimit;
+
+    @Value("${inventory.messaging.publish-batch.timeout-ms:10}")
+    private long publishBatchTimeoutMs;
+
+    @Value("${spring.rabbitmq.listener.simple.retry.enabled:false}")
+    private boolean listenerRetryEnabled;
+
+    @Value("${spring.rabbitmq.listener.simple.retry.max-attempts:3}")
+    private int listenerMaxAttempts;
+
+    @Value("${spring.rabbitmq.listener.simple.retry.initial-interval:1000}")
+    private long listenerRetryIntervalMs;
+
+    @Value("${inventory.inventory.batch.size:200}")
+    private int inventoryBatchSize;
+
+    @Value("${inventory.inventory.batch.receive-timeout-ms:50}")
+    private long inventoryBatchReceiveTimeoutMs;
+
     // Exchange
     @Bean
     public TopicExchange simulationExchange() {
@@ -71,7 +118,6 @@ public class RabbitMQConfig {
 
     // Message Converter with Java 8 Time support
     @Bean
-    @Primary
     public MessageConverter jsonMessageConverter() {
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
@@ -81,10 +127,25 @@ public class RabbitMQConfig {
         return converter;
     }
 
+    @Bean
+    public MessageConverter binaryMessageConverter() {
+        return new CompactBinaryMessageConverter();
+    }
+
+    // Consumers pick the decoder by content type, so JSON and binary publishers can be mixed
+    @Bean
+    @Primary
+    public MessageConverter inboundMessageConverter() {
+        ContentTypeDelegatingMessageConverter converter = new ContentTypeDelegatingMessageConverter(jsonMessageConverter());
+        converter.addDelegate(MessageProperties.CONTENT_TYPE_JSON, jsonMessageConverter());
+        converter.addDelegate(CompactBinaryMessageConverter.CONTENT_TYPE, binaryMessageConverter());
+        return converter;
+    }
+
     @Bean
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
-        RabbitTemplate template = new RabbitTemplate(connectionFactory);
-        template.setMessageConverter(jsonMessageConverter());
+        RabbitTemplate template = publishBatchEnabled ? batchingRabbitTemplate(connectionFactory) : new RabbitTemplate(connectionFactory);
+        template.setMessageConverter("binary".equalsIgnoreCase(codec) ? binaryMessageConverter() : jsonMessageConverter());
         
         // Add connection listener
         connectionFactory.addConnectionListener(connection -> {
@@ -96,12 +157,86 @@ public class RabbitMQConfig {
         return template;
     }
 
+    /**
+     * Packs messages per exchange and routing key into one broker frame (size, byte or time limit, whichever first).
+     * Listener containers split the frames back into individual messages.
+     * Correlated (confirmed) sends bypass the batching, so confirms must be disabled to use it.
+     */
+    private RabbitTemplate batchingRabbitTemplate(ConnectionFactory connectionFactory) {
+        if (confirmsEnabled && "rabbit".equalsIgnoreCase(transport)) {
+            throw new IllegalStateException("inventory.messaging.publish-batch.enabled requires "
+                    + "inventory.messaging.confirms.enabled: false (confirmed sends are never batched)");
+        }
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("rabbit-publish-batch-");
+        scheduler.setDaemon(true);
+        scheduler.initialize();
+
+        SimpleBatchingStrategy strategy = new SimpleBatchingStrategy(publishBatchSize, publishBatchBufferLimit, publishBatchTimeoutMs);
+        return new BatchingRabbitTemplate(connectionFactory, strategy, scheduler);
+    }
+
     @Bean
     public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(ConnectionFactory connectionFactory) {
         SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
         factory.setConnectionFactory(connectionFactory);
-        factory.setMessageConverter(jsonMessageConverter());
+        factory.setMessageConverter(inboundMessageConverter());
         factory.setPrefetchCount(800);
+        applyRetry(factory);
+        applyThreading(factory);
         return factory;
     }
+
+    /**
+     * Batch listener factory: drains up to batch.size messages or waits batch.receive-timeout-ms
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory inventoryBatchListenerContainerFactory(ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(inboundMessageConverter());
+        factory.setPrefetchCount(800);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(inventoryBatchSize);
+        factory.setReceiveTimeout(inventoryBatchReceiveTimeoutMs);
+        applyRetry(factory);
+        applyThreading(factory);
+        return factory;
+    }
+
+    /**
+     * Boot silently ignores spring.threads.virtual.enabled before Java 21; refuse to start instead of running in platform mode
+     */
+    @PostConstruct
+    public void checkThreading() {
+        if (virtualThreads && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("spring.threads.virtual.enabled requires Java 21, running on "
+                    + Runtime.version() + "; unset it or start on a Java 21 runtime");
+        }
+    }
+
+    /**
+     * Apply spring.rabbitmq.listener.simple.retry, which Boot also only wires into its own factory.
+     * A delivery still failing after the last attempt is rejected rather than requeued for another round.
+     */
+    private void applyRetry(SimpleRabbitListenerContainerFactory factory) {
+        factory.setDefaultRequeueRejected(false);
+        if (listenerRetryEnabled) {
+            factory.setAdviceChain(RetryInterceptorBuilder.stateless()
+                    .maxAttempts(listenerMaxAttempts)
+                    .backOffOptions(listenerRetryIntervalMs, 1.0, listenerRetryIntervalMs)
+                    .build());
+        }
+    }
+
+    /**
+     * Run consumers on virtual threads when spring.threads.virtual.enabled is set (requires Java 21).
+     * Boot only applies this to the factory it auto-configures, so the factories above opt in here.
+     */
+    private void applyThreading(SimpleRabbitListenerContainerFactory factory) {
+        if (virtualThreads) {
+            factory.setTaskExecutor(new VirtualThreadTaskExecutor("rabbit-listener-"));
+        }
+    }
 }
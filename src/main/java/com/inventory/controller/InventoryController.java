@@ -2,16 +2,61 @@ package com.inventory.controller;
 
 import com.inventory.model.InventoryItem;
 import com.inventory.service.InventoryManager;
+import com.inventory.service.InventoryQueryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/inventory")
 @RequiredArgsConstructor
 public class InventoryController {
 
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+
     private final InventoryManager inventoryManager;
+    private final InventoryQueryService inventoryQueryService;
+
+    /**
+     * Bulk lookup by SKU list (?skus=SKU-001,SKU-002) or temperature zone (?zone=CHILLED)
+     */
+    @GetMapping
+    public ResponseEntity<List<InventoryItem>> findInventory(
+            @RequestParam(required = false) List<String> skus,
+            @RequestParam(required = false) String zone) {
+        if (skus != null) {
+            return ResponseEntity.ok(inventoryQueryService.findBySkus(skus));
+        }
+        if (zone != null) {
+            return ResponseEntity.ok(inventoryQueryService.findByZone(zone));
+        }
+        return ResponseEntity.badRequest().build();
+    }
+
+    /**
+     * Bulk lookup for SKU lists too long for a query string
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<List<InventoryItem>> lookupInventory(@RequestBody List<String> skus) {
+        return ResponseEntity.ok(inventoryQueryService.findBySkus(skus));
+    }
+
+    /**
+     * Stream a point-in-time CSV snapshot of the whole catalogue
+     */
+    @GetMapping("/snapshot")
+    public ResponseEntity<StreamingResponseBody> exportSnapshot() {
+        StreamingResponseBody body = inventoryQueryService::exportSnapshotCsv;
+        return ResponseEntity.ok()
+                .contentType(CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"inventory-snapshot.csv\"")
+                .body(body);
+    }
 
     @GetMapping("/{sku}")
     public ResponseEntity<InventoryItem> getInventory(@PathVariable String sku) {
@@ -1,10 +1,15 @@
 package com.inventory.controller;
 
 import com.inventory.model.Order;
+import com.inventory.model.OrderFilter;
+import com.inventory.model.OrderPage;
 import com.inventory.service.OrderManager;
+import com.inventory.service.OrderQueryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -13,11 +18,36 @@ import java.util.List;
 @RequiredArgsConstructor
 public class OrderController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final OrderManager orderManager;
+    private final OrderQueryService orderQueryService;
 
+    /**
+     * All orders as a JSON array (unchanged response shape; use /page or /export for large runs)
+     */
     @GetMapping
     public ResponseEntity<List<Order>> getAllOrders() {
-        return ResponseEntity.ok(orderManager.getAllOrders());
+        return ResponseEntity.ok(orderQueryService.findAll(new OrderFilter()));
+    }
+
+    /**
+     * Keyset-paginated order list; filters: status, orderType, customerId, placedFrom, placedTo
+     */
+    @GetMapping("/page")
+    public ResponseEntity<OrderPage> getOrderPage(OrderFilter filter,
+                                               @RequestParam(required = false) Long after,
+                                               @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(orderQueryService.findPage(filter, after, limit));
+    }
+
+    /**
+     * Stream all matching orders as newline-delimited JSON
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(OrderFilter filter) {
+        StreamingResponseBody body = out -> orderQueryService.exportNdjson(filter, out);
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
     }
 
     @GetMapping("/{orderId}")
@@ -0,0 +1,447 @@
+package com.inventory.journal;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.VarHandle;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Inventory state changes as fixed-size records in memory-mapped, append-only segment files, plus periodic
+ * compact snapshots of quantity and reserved quantity per SKU.
+ * Each record carries the SKU's state after the change, so replay is idempotent and only the records after the
+ * latest snapshot are read on startup; segments fully covered by a snapshot are deleted.
+ * Records are appended under the SKU's ledger lock, so records of one SKU are in the order they were applied.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InventoryEventLog {
+
+    static final int MAGIC = 0x49454C31;          // "IEL1"
+    static final int SNAPSHOT_MAGIC = 0x49455331; // "IES1"
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int RECORD_SIZE = 64;
+
+    // Segment header layout
+    static final int HEADER_MAGIC = 0;
+    static final int HEADER_VERSION = 4;
+    static final int HEADER_RECORD_SIZE = 8;
+    static final int HEADER_CAPACITY = 12;
+    static final int HEADER_FIRST_SEQUENCE = 16;
+
+    // Record layout; SEQUENCE holds sequence + 1 and is written last, 0 = slot not (fully) written
+    static final int SEQUENCE = 0;
+    static final int QUANTITY = 8;
+    static final int RESERVED = 12;
+    static final int SKU = 16;
+    static final int SKU_LENGTH = 48;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${inventory.event-log.enabled:false}")
+    private boolean enabled;
+
+    @Value("${inventory.event-log.directory:journal/inventory}")
+    private String directory;
+
+    @Value("${inventory.event-log.segment-records:1048576}")
+    private int segmentRecords;
+
+    /**
+     * Latest quantity and reserved quantity per SKU (packed into one long), the source of each snapshot
+     */
+    private final Map<String, Long> state = new ConcurrentHashMap<>();
+    private final Map<Long, Segment> segments = new ConcurrentHashMap<>();
+    private final Object segmentLock = new Object();
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    private Map<String, Long> recovered = Collections.emptyMap();
+    private Path dir;
+    private long runStartSequence;
+    private long snapshotSequence;
+    private volatile Segment current;
+
+    private Counter skippedCounter;
+    private Timer snapshotTimer;
+
+    /**
+     * Restore state from the latest snapshot and the log tail, write a fresh snapshot and start a new segment
+     */
+    @PostConstruct
+    public void open() {
+        Gauge.builder("inventory_event_log_records", nextSequence, AtomicLong::get)
+                .description("Last inventory event log sequence written")
+                .register(meterRegistry);
+        skippedCounter = Counter.builder("inventory_event_log_skipped_total")
+                .description("Changes not logged because the SKU does not fit a record (still in snapshots)")
+                .register(meterRegistry);
+        snapshotTimer = Timer.builder("inventory_event_log_snapshot_time")
+                .description("Time taken to write an inventory snapshot")
+                .register(meterRegistry);
+        if (!enabled) {
+            return;
+        }
+
+        if (segmentRecords < 2 || segmentRecords > (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE) {
+            throw new IllegalStateException("inventory.event-log.segment-records out of range: " + segmentRecords);
+        }
+        long start = System.nanoTime();
+        try {
+            dir = Paths.get(directory);
+            Files.createDirectories(dir);
+            long replayed = recover();
+            recovered = Map.copyOf(state);
+
+            runStartSequence = nextSequence.get();
+            current = segmentFor(runStartSequence);
+            snapshot();
+
+            long elapsedNanos = System.nanoTime() - start;
+            meterRegistry.timer("inventory_event_log_recovery_time").record(elapsedNanos, TimeUnit.NANOSECONDS);
+            log.info("Inventory event log: Recovered {} SKUs ({} log records replayed) from {} in {} ms",
+                    recovered.size(), replayed, dir.toAbsolutePath(), elapsedNanos / 1_000_000);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open inventory event log " + directory, e);
+        }
+    }
+
+    /**
+     * State recovered on startup: SKU to {quantity, reserved quantity}; empty if disabled or nothing was logged
+     */
+    public Map<String, int[]> recoveredState() {
+        Map<String, int[]> result = new ConcurrentHashMap<>();
+        recovered.forEach((sku, packed) -> result.put(sku, new int[]{quantity(packed), reserved(packed)}));
+        return result;
+    }
+
+    /**
+     * Record a SKU's state after a change (caller must hold the SKU's ledger lock)
+     */
+    public void append(String sku, int quantity, int reservedQuantity) {
+        if (!enabled) {
+            return;
+        }
+        // State first: a snapshot that sees this sequence as written also sees this state or a newer one
+        state.put(sku, pack(quantity, reservedQuantity));
+        if (!fits(sku)) {
+            skippedCounter.increment();
+            return;
+        }
+
+        long sequence = nextSequence.getAndIncrement();
+        Segment segment = current;
+        if (!segment.contains(sequence)) {
+            segment = segmentFor(sequence);
+        }
+        MappedByteBuffer buffer = segment.buffer;
+        int offset = segment.offset(sequence);
+        buffer.putLong(offset + SEQUENCE, 0);
+        buffer.putInt(offset + QUANTITY, quantity);
+        buffer.putInt(offset + RESERVED, reservedQuantity);
+        buffer.put(offset + SKU, (byte) sku.length());
+        for (int i = 0; i < sku.length(); i++) {
+            buffer.put(offset + SKU + 1 + i, (byte) sku.charAt(i));
+        }
+        VarHandle.releaseFence();
+        buffer.putLong(offset + SEQUENCE, sequence + 1);
+    }
+
+    /**
+     * Write a snapshot of every SKU's state, then delete the segments and snapshots it makes obsolete.
+     * Recovery reads at most the records written since the last snapshot.
+     */
+    @Scheduled(fixedDelayString = "${inventory.event-log.snapshot-interval-ms:60000}")
+    public synchronized void snapshot() {
+        if (!enabled || current == null) {
+            return;
+        }
+        long sequence = nextSequence.get();
+        if (sequence == snapshotSequence && Files.exists(snapshotPath(sequence))) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        Path target = snapshotPath(sequence);
+        Path temp = dir.resolve(target.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(sequence);
+                List<Map.Entry<String, Long>> entries = new ArrayList<>(state.entrySet());
+                out.writeInt(entries.size());
+                for (Map.Entry<String, Long> entry : entries) {
+                    out.writeUTF(entry.getKey());
+                    out.writeLong(entry.getValue());
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            snapshotSequence = sequence;
+            deleteObsolete(sequence);
+            log.debug("Inventory event log: Snapshot of {} SKUs at sequence {}", state.size(), sequence);
+        } catch (IOException e) {
+            log.error("Inventory event log: Failed to write snapshot at sequence {}, will retry", sequence, e);
+        } finally {
+            snapshotTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Load the latest snapshot, then apply every written record after it in sequence order
+     */
+    private long recover() throws IOException {
+        Path latest = latestSnapshot();
+        long from = 0;
+        if (latest != null) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(latest)))) {
+                if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != FORMAT_VERSION) {
+                    throw new IOException("Unsupported inventory snapshot " + latest);
+                }
+                from = in.readLong();
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    state.put(in.readUTF(), in.readLong());
+                }
+            }
+        }
+        nextSequence.set(from);
+        snapshotSequence = from;
+
+        long replayed = 0;
+        for (Path file : listFiles(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            replayed += replay(file, from);
+        }
+        return replayed;
+    }
+
+    private long replay(Path file, long from) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                return 0;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(HEADER_MAGIC) != MAGIC || buffer.getInt(HEADER_VERSION) != FORMAT_VERSION
+                    || buffer.getInt(HEADER_RECORD_SIZE) != RECORD_SIZE) {
+                log.warn("Inventory event log: Skipping unrecognised segment {}", file);
+                return 0;
+            }
+            int capacity = buffer.getInt(HEADER_CAPACITY);
+            long first = buffer.getLong(HEADER_FIRST_SEQUENCE);
+            int records = (int) Math.min(capacity, (channel.size() - HEADER_SIZE) / RECORD_SIZE);
+
+            long replayed = 0;
+            for (int i = (int) Math.max(0, Math.min(records, from - first)); i < records; i++) {
+                int offset = HEADER_SIZE + i * RECORD_SIZE;
+                long sequence = first + i;
+                if (buffer.getLong(offset + SEQUENCE) != sequence + 1) {
+                    continue; // Never written, or torn by a crash mid-write
+                }
+                int length = buffer.get(offset + SKU);
+                char[] sku = new char[length];
+                for (int c = 0; c < length; c++) {
+                    sku[c] = (char) buffer.get(offset + SKU + 1 + c);
+                }
+                state.put(new String(sku), pack(buffer.getInt(offset + QUANTITY), buffer.getInt(offset + RESERVED)));
+                nextSequence.accumulateAndGet(sequence + 1, Math::max);
+                replayed++;
+            }
+            return replayed;
+        }
+    }
+
+    /**
+     * Segment holding a sequence, mapping a new file when writers cross a segment boundary
+     */
+    private Segment segmentFor(long sequence) {
+        synchronized (segmentLock) {
+            long index = (sequence - runStartSequence) / segmentRecords;
+            Segment segment = segments.get(index);
+            if (segment == null) {
+                segment = new Segment(runStartSequence + index * segmentRecords);
+                segments.put(index, segment);
+            }
+            if (current == null || segment.firstSequence > current.firstSequence) {
+                current = segment;
+            }
+            return segment;
+        }
+    }
+
+    private void deleteObsolete(long snapshotSequence) throws IOException {
+        for (Path file : listFiles(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (sequenceOf(file, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX) < snapshotSequence) {
+                Files.deleteIfExists(file);
+            }
+        }
+        for (Path file : listFiles(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            long first = sequenceOf(file, SEGMENT_PREFIX, SEGMENT_SUFFIX);
+            Segment open = null;
+            for (Segment segment : segments.values()) {
+                if (segment.firstSequence == first) {
+                    open = segment;
+                }
+            }
+            if (open == current) {
+                continue;
+            }
+            // Segments from earlier runs may end before their capacity; their records are all below the snapshot
+            boolean covered = open != null ? first + segmentRecords <= snapshotSequence : first < runStartSequence;
+            if (covered) {
+                if (open != null) {
+                    segments.values().remove(open);
+                    open.close();
+                }
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private Path latestSnapshot() throws IOException {
+        List<Path> snapshots = listFiles(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        return snapshots.isEmpty() ? null : snapshots.get(snapshots.size() - 1);
+    }
+
+    /**
+     * Files with a sequence-numbered name, in sequence order
+     */
+    private List<Path> listFiles(String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(prefix) && name.endsWith(suffix);
+                    })
+                    .sorted((a, b) -> Long.compare(sequenceOf(a, prefix, suffix), sequenceOf(b, prefix, suffix)))
+                    .toList();
+        }
+    }
+
+    private static long sequenceOf(Path file, String prefix, String suffix) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()));
+    }
+
+    private Path snapshotPath(long sequence) {
+        return dir.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, sequence, SNAPSHOT_SUFFIX));
+    }
+
+    /**
+     * SKUs are stored as length-prefixed ASCII in a fixed field
+     */
+    private static boolean fits(String sku) {
+        if (sku.length() > SKU_LENGTH - 1) {
+            return false;
+        }
+        for (int i = 0; i < sku.length(); i++) {
+            if (sku.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long pack(int quantity, int reservedQuantity) {
+        return ((long) quantity << 32) | (reservedQuantity & 0xFFFFFFFFL);
+    }
+
+    private static int quantity(long packed) {
+        return (int) (packed >>> 32);
+    }
+
+    private static int reserved(long packed) {
+        return (int) packed;
+    }
+
+    /**
+     * Snapshot on shutdown so the next start replays no log records
+     */
+    @PreDestroy
+    public void close() {
+        if (!enabled || current == null) {
+            return;
+        }
+        snapshot();
+        for (Segment segment : segments.values()) {
+            segment.close();
+        }
+        log.info("Inventory event log: Closed at sequence {}", nextSequence.get());
+    }
+
+    /**
+     * One mapped segment file holding a fixed number of consecutive sequences
+     */
+    private final class Segment {
+        final long firstSequence;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+
+        Segment(long firstSequence) {
+            this.firstSequence = firstSequence;
+            Path file = dir.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+            try {
+                channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE);
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) segmentRecords * RECORD_SIZE);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to create inventory event log segment " + file, e);
+            }
+            buffer.putInt(HEADER_MAGIC, MAGIC);
+            buffer.putInt(HEADER_VERSION, FORMAT_VERSION);
+            buffer.putInt(HEADER_RECORD_SIZE, RECORD_SIZE);
+            buffer.putInt(HEADER_CAPACITY, segmentRecords);
+            buffer.putLong(HEADER_FIRST_SEQUENCE, firstSequence);
+        }
+
+        boolean contains(long sequence) {
+            return sequence >= firstSequence && sequence < firstSequence + segmentRecords;
+        }
+
+        int offset(long sequence) {
+            return HEADER_SIZE + (int) (sequence - firstSequence) * RECORD_SIZE;
+        }
+
+        void close() {
+            try {
+                buffer.force();
+                channel.close();
+            } catch (IOException e) {
+                log.error("Inventory event log: Failed to close segment {}", firstSequence, e);
+            }
+        }
+    }
+}
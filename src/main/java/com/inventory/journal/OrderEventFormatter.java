@@ -0,0 +1,56 @@
+package com.inventory.journal;
+
+import com.inventory.model.Order;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Text form of order events, shared by the journal's log fallback and the offline exporter so both produce the same lines
+ */
+public final class OrderEventFormatter {
+
+    private static final DateTimeFormatter SIM_TIME = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private OrderEventFormatter() {
+    }
+
+    public static String received(String orderId, Order.OrderType orderType, String customerId, int itemsCount,
+                                  LocalDateTime placedTime, LocalDateTime dueTime) {
+        return "ORDER_RECEIVED | orderId=" + orderId + " | orderType=" + orderType + " | customerId=" + customerId
+                + " | itemsCount=" + itemsCount + " | placedTime=" + placedTime + " | dueTime=" + dueTime;
+    }
+
+    public static String processing(String orderId, LocalDateTime simTime) {
+        return "ORDER_PROCESSING | orderId=" + lower(orderId) + " | status=PROCESSING | time=" + time(simTime);
+    }
+
+    public static String completed(String orderId, Order.OrderType orderType, String customerId, CharSequence items,
+                                   LocalDateTime simTime) {
+        return "ORDER_COMPLETED | orderId=" + lower(orderId) + " | orderType=" + orderType + " | customerId=" + customerId
+                + " | items=[" + items + "] | status=COMPLETED | time=" + time(simTime);
+    }
+
+    public static String failed(String orderId, OrderFailureReason reason, CharSequence items, LocalDateTime simTime) {
+        return "ORDER_FAILED | orderId=" + lower(orderId) + " | reason=" + reason + " | items=[" + items
+                + "] | time=" + time(simTime);
+    }
+
+    /**
+     * Append one "sku:quantity" entry to an items list
+     */
+    public static void appendItem(StringBuilder items, String sku, Integer quantity) {
+        if (items.length() > 0) {
+            items.append(',');
+        }
+        items.append(sku).append(':').append(quantity);
+    }
+
+    private static String lower(String orderId) {
+        return orderId != null ? orderId.toLowerCase() : null;
+    }
+
+    private static String time(LocalDateTime simTime) {
+        return simTime != null ? simTime.format(SIM_TIME) : null;
+    }
+}
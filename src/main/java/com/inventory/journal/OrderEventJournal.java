@@ -0,0 +1,264 @@
+package com.inventory.journal;
+
+import com.inventory.message.OrderReceivedMessage;
+import com.inventory.model.Order;
+import com.inventory.model.OrderItem;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.VarHandle;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Order lifecycle events as fixed-size binary records in a memory-mapped ring file.
+ * Writers claim slots with a single atomic increment and write in place (no locks, no per-event allocation);
+ * the oldest records are overwritten once the ring is full. {@link OrderEventJournalReader} rebuilds the text lines.
+ * When disabled, the same lines are written to the log instead.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderEventJournal {
+
+    static final int MAGIC = 0x4F454A31; // "OEJ1"
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int RECORD_SIZE = 128;
+
+    // Header layout
+    static final int HEADER_MAGIC = 0;
+    static final int HEADER_VERSION = 4;
+    static final int HEADER_RECORD_SIZE = 8;
+    static final int HEADER_CAPACITY = 12;
+
+    // Record layout; SEQUENCE holds sequence + 1 and is written last, 0 = slot being written
+    static final int SEQUENCE = 0;
+    static final int SIM_TIME = 8;
+    static final int PLACED_TIME = 16;
+    static final int DUE_TIME = 24;
+    static final int QUANTITY = 32;
+    static final int REASON = QUANTITY; // FAILED records: OrderFailureReason ordinal
+    static final int ITEM_COUNT = 36;
+    static final int TYPE = 38;
+    static final int ORDER_TYPE = 39;
+    static final int ORDER_ID = 40;
+    static final int ORDER_ID_LENGTH = 40;
+    static final int TEXT = 80; // customer ID, or SKU for ITEM records
+    static final int TEXT_LENGTH = 48;
+
+    static final long NULL_TIME = Long.MIN_VALUE;
+    static final byte NULL_STRING = -1;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${inventory.journal.enabled:true}")
+    private boolean enabled;
+
+    @Value("${inventory.journal.path:journal/order-events.journal}")
+    private String path;
+
+    @Value("${inventory.journal.capacity:262144}")
+    private int capacity;
+
+    private final AtomicLong nextSequence = new AtomicLong();
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    /**
+     * Create a fresh journal file for this run
+     */
+    @PostConstruct
+    public void open() {
+        Gauge.builder("order_journal_records", nextSequence, AtomicLong::get)
+                .description("Order event records written to the journal since startup")
+                .register(meterRegistry);
+        if (!enabled) {
+            return;
+        }
+
+        long maxCapacity = (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE;
+        if (capacity < 2 || capacity > maxCapacity) {
+            throw new IllegalStateException("inventory.journal.capacity must be between 2 and " + maxCapacity);
+        }
+        try {
+            Path file = Paths.get(path);
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * RECORD_SIZE);
+            buffer.putInt(HEADER_MAGIC, MAGIC);
+            buffer.putInt(HEADER_VERSION, FORMAT_VERSION);
+            buffer.putInt(HEADER_RECORD_SIZE, RECORD_SIZE);
+            buffer.putInt(HEADER_CAPACITY, capacity);
+            log.info("Order event journal: {} ({} records of {} bytes)", file.toAbsolutePath(), capacity, RECORD_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open order event journal " + path, e);
+        }
+    }
+
+    public void received(OrderReceivedMessage message, LocalDateTime simTime) {
+        int itemsCount = message.getItems().size();
+        if (!enabled) {
+            if (log.isInfoEnabled()) {
+                log.info(OrderEventFormatter.received(message.getOrderId(), message.getOrderType(),
+                        message.getCustomerId(), itemsCount, message.getOrderPlacedTime(), message.getOrderDueTime()));
+            }
+            return;
+        }
+        long sequence = nextSequence.getAndIncrement();
+        int offset = offset(sequence);
+        writeEvent(offset, OrderEventType.RECEIVED, message.getOrderId(), message.getOrderType(),
+                message.getCustomerId(), itemsCount, simTime);
+        buffer.putLong(offset + PLACED_TIME, epochSeconds(message.getOrderPlacedTime()));
+        buffer.putLong(offset + DUE_TIME, epochSeconds(message.getOrderDueTime()));
+        commit(offset, sequence);
+    }
+
+    public void processing(Order order, LocalDateTime simTime) {
+        if (!enabled) {
+            if (log.isInfoEnabled()) {
+                log.info(OrderEventFormatter.processing(order.getOrderId(), simTime));
+            }
+            return;
+        }
+        long sequence = nextSequence.getAndIncrement();
+        int offset = offset(sequence);
+        writeEvent(offset, OrderEventType.PROCESSING, order.getOrderId(), order.getOrderType(), null, 0, simTime);
+        commit(offset, sequence);
+    }
+
+    public void completed(Order order, LocalDateTime simTime) {
+        if (!enabled) {
+            if (log.isInfoEnabled()) {
+                log.info(OrderEventFormatter.completed(order.getOrderId(), order.getOrderType(), order.getCustomerId(),
+                        itemsText(order.getItems()), simTime));
+            }
+            return;
+        }
+        writeWithItems(OrderEventType.COMPLETED, order, 0, simTime);
+    }
+
+    public void failed(Order order, OrderFailureReason reason, LocalDateTime simTime) {
+        if (!enabled) {
+            if (log.isWarnEnabled()) {
+                log.warn(OrderEventFormatter.failed(order.getOrderId(), reason, itemsText(order.getItems()), simTime));
+            }
+            return;
+        }
+        writeWithItems(OrderEventType.FAILED, order, reason.ordinal(), simTime);
+    }
+
+    /**
+     * Write an event (with its reason code, 0 unless FAILED) followed by one ITEM record per order line,
+     * in consecutive sequences
+     */
+    private void writeWithItems(OrderEventType type, Order order, int reason, LocalDateTime simTime) {
+        List<OrderItem> items = order.getItems();
+        int itemCount = Math.min(items.size(), Math.min(capacity - 1, Short.MAX_VALUE));
+        long first = nextSequence.getAndAdd(1 + itemCount);
+
+        int offset = offset(first);
+        writeEvent(offset, type, order.getOrderId(), order.getOrderType(), order.getCustomerId(), itemCount, simTime);
+        buffer.putInt(offset + REASON, reason);
+        commit(offset, first);
+
+        for (int i = 0; i < itemCount; i++) {
+            OrderItem item = items.get(i);
+            long sequence = first + 1 + i;
+            int itemOffset = offset(sequence);
+            writeEvent(itemOffset, OrderEventType.ITEM, order.getOrderId(), null, item.getSku(), 0, simTime);
+            buffer.putInt(itemOffset + QUANTITY, item.getQuantity() != null ? item.getQuantity() : 0);
+            commit(itemOffset, sequence);
+        }
+    }
+
+    private void writeEvent(int offset, OrderEventType type, String orderId, Order.OrderType orderType,
+                            String text, int itemCount, LocalDateTime simTime) {
+        buffer.putLong(offset + SEQUENCE, 0);
+        buffer.putLong(offset + SIM_TIME, epochSeconds(simTime));
+        buffer.putLong(offset + PLACED_TIME, NULL_TIME);
+        buffer.putLong(offset + DUE_TIME, NULL_TIME);
+        buffer.putInt(offset + QUANTITY, 0);
+        buffer.putShort(offset + ITEM_COUNT, (short) itemCount);
+        buffer.put(offset + TYPE, type.code());
+        buffer.put(offset + ORDER_TYPE, orderType != null ? (byte) orderType.ordinal() : NULL_STRING);
+        putString(offset + ORDER_ID, ORDER_ID_LENGTH, orderId);
+        putString(offset + TEXT, TEXT_LENGTH, text);
+    }
+
+    /**
+     * Publish a record: the sequence is written after all other fields
+     */
+    private void commit(int offset, long sequence) {
+        VarHandle.releaseFence();
+        buffer.putLong(offset + SEQUENCE, sequence + 1);
+    }
+
+    private int offset(long sequence) {
+        return HEADER_SIZE + (int) (sequence % capacity) * RECORD_SIZE;
+    }
+
+    /**
+     * Length-prefixed ASCII (non-ASCII characters become '?'), truncated to the field size
+     */
+    private void putString(int offset, int fieldLength, String value) {
+        if (value == null) {
+            buffer.put(offset, NULL_STRING);
+            return;
+        }
+        int length = Math.min(value.length(), fieldLength - 1);
+        buffer.put(offset, (byte) length);
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            buffer.put(offset + 1 + i, c < 0x80 ? (byte) c : (byte) '?');
+        }
+    }
+
+    private static long epochSeconds(LocalDateTime time) {
+        return time != null ? time.toEpochSecond(ZoneOffset.UTC) : NULL_TIME;
+    }
+
+    private static StringBuilder itemsText(List<OrderItem> items) {
+        StringBuilder text = new StringBuilder();
+        for (OrderItem item : items) {
+            OrderEventFormatter.appendItem(text, item.getSku(), item.getQuantity());
+        }
+        return text;
+    }
+
+    /**
+     * Push written records to disk before shutdown
+     */
+    @PreDestroy
+    public void close() {
+        if (buffer == null) {
+            return;
+        }
+        try {
+            buffer.force();
+            channel.close();
+            log.info("Order event journal: Closed after {} records", nextSequence.get());
+        } catch (IOException e) {
+            log.error("Order event journal: Failed to close {}", path, e);
+        }
+    }
+}
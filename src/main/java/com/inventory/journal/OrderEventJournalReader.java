@@ -0,0 +1,164 @@
+package com.inventory.journal;
+
+import com.inventory.model.Order;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.inventory.journal.OrderEventJournal.*;
+
+/**
+ * Offline exporter: reads an order event journal and rebuilds the ORDER_* text lines in sequence order.
+ * <p>
+ * Usage: {@code java -cp <app.jar> -Dloader.main=com.inventory.journal.OrderEventJournalReader
+ * org.springframework.boot.loader.launch.PropertiesLauncher <journal-file> [output-file]}
+ */
+public class OrderEventJournalReader {
+
+    private static final Order.OrderType[] ORDER_TYPES = Order.OrderType.values();
+
+    private final ByteBuffer buffer;
+    private final int capacity;
+
+    public OrderEventJournalReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.getInt(HEADER_MAGIC) != MAGIC) {
+            throw new IllegalArgumentException("Not an order event journal");
+        }
+        int version = buffer.getInt(HEADER_VERSION);
+        if (version != FORMAT_VERSION || buffer.getInt(HEADER_RECORD_SIZE) != RECORD_SIZE) {
+            throw new IllegalArgumentException("Unsupported journal format version " + version);
+        }
+        this.capacity = buffer.getInt(HEADER_CAPACITY);
+    }
+
+    /**
+     * Emit the text line of every complete event still in the ring, oldest first
+     */
+    public void export(Consumer<String> lines) {
+        long[] sequences = committedSequences();
+        for (int i = 0; i < sequences.length; i++) {
+            long sequence = sequences[i];
+            int offset = offset(sequence);
+            OrderEventType type = OrderEventType.fromCode(buffer.get(offset + TYPE));
+            if (type == null || type == OrderEventType.ITEM) {
+                continue; // ITEM records are consumed with their event (an orphan means its event was overwritten)
+            }
+
+            String orderId = getString(offset + ORDER_ID);
+            LocalDateTime simTime = getTime(offset + SIM_TIME);
+            int itemCount = buffer.getShort(offset + ITEM_COUNT);
+            switch (type) {
+                case RECEIVED:
+                    lines.accept(OrderEventFormatter.received(orderId, orderType(offset), getString(offset + TEXT),
+                            itemCount, getTime(offset + PLACED_TIME), getTime(offset + DUE_TIME)));
+                    break;
+                case PROCESSING:
+                    lines.accept(OrderEventFormatter.processing(orderId, simTime));
+                    break;
+                case COMPLETED:
+                case FAILED:
+                    StringBuilder items = new StringBuilder();
+                    for (int item = 1; item <= itemCount; item++) {
+                        int itemOffset = offset(sequence + item);
+                        if (buffer.getLong(itemOffset + SEQUENCE) != sequence + item + 1) {
+                            items.append(items.length() > 0 ? "," : "").append("?");
+                            continue; // Item still being written or already overwritten
+                        }
+                        OrderEventFormatter.appendItem(items, getString(itemOffset + TEXT), buffer.getInt(itemOffset + QUANTITY));
+                    }
+                    lines.accept(type == OrderEventType.COMPLETED
+                            ? OrderEventFormatter.completed(orderId, orderType(offset), getString(offset + TEXT), items, simTime)
+                            : OrderEventFormatter.failed(orderId,
+                                    OrderFailureReason.fromOrdinal(buffer.getInt(offset + REASON)), items, simTime));
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Sequences of all committed slots, sorted (the ring may have wrapped)
+     */
+    private long[] committedSequences() {
+        long[] sequences = new long[capacity];
+        int count = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            long stored = buffer.getLong(HEADER_SIZE + slot * RECORD_SIZE + SEQUENCE);
+            if (stored != 0) {
+                sequences[count++] = stored - 1;
+            }
+        }
+        long[] committed = Arrays.copyOf(sequences, count);
+        Arrays.sort(committed);
+        return committed;
+    }
+
+    private int offset(long sequence) {
+        return HEADER_SIZE + (int) (sequence % capacity) * RECORD_SIZE;
+    }
+
+    private Order.OrderType orderType(int offset) {
+        byte ordinal = buffer.get(offset + ORDER_TYPE);
+        return ordinal >= 0 && ordinal < ORDER_TYPES.length ? ORDER_TYPES[ordinal] : null;
+    }
+
+    private String getString(int offset) {
+        byte length = buffer.get(offset);
+        if (length == NULL_STRING) {
+            return null;
+        }
+        byte[] ascii = new byte[length];
+        buffer.get(offset + 1, ascii);
+        return new String(ascii, StandardCharsets.US_ASCII);
+    }
+
+    private LocalDateTime getTime(int offset) {
+        long epochSecond = buffer.getLong(offset);
+        return epochSecond != NULL_TIME ? LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC) : null;
+    }
+
+    /**
+     * Read a journal file (works while the simulator is still writing it)
+     */
+    public static List<String> readLines(Path journal) throws IOException {
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            List<String> lines = new ArrayList<>();
+            new OrderEventJournalReader(buffer).export(lines::add);
+            return lines;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: OrderEventJournalReader <journal-file> [output-file]");
+            System.exit(1);
+        }
+        List<String> lines = readLines(Paths.get(args[0]));
+        if (args.length > 1) {
+            try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8))) {
+                lines.forEach(out::println);
+            }
+        } else {
+            PrintStream out = System.out;
+            lines.forEach(out::println);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.inventory.journal;
+
+/**
+ * Record types in the order event journal (ITEM records follow their COMPLETED/FAILED record)
+ */
+public enum OrderEventType {
+    RECEIVED(1),
+    PROCESSING(2),
+    COMPLETED(3),
+    FAILED(4),
+    ITEM(5);
+
+    private static final OrderEventType[] BY_CODE = new OrderEventType[6];
+
+    static {
+        for (OrderEventType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final byte code;
+
+    OrderEventType(int code) {
+        this.code = (byte) code;
+    }
+
+    public byte code() {
+        return code;
+    }
+
+    public static OrderEventType fromCode(byte code) {
+        return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
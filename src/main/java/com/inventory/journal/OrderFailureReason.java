@@ -0,0 +1,15 @@
+package com.inventory.journal;
+
+/**
+ * Why an order was rejected, stored by ordinal in FAILED records (0 = journals written before reasons were kept)
+ */
+public enum OrderFailureReason {
+    INSUFFICIENT_INVENTORY,
+    UNKNOWN_SKU;
+
+    private static final OrderFailureReason[] VALUES = values();
+
+    public static OrderFailureReason fromOrdinal(int ordinal) {
+        return ordinal >= 0 && ordinal < VALUES.length ? VALUES[ordinal] : INSUFFICIENT_INVENTORY;
+    }
+}
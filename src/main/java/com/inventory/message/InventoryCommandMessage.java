@@ -0,0 +1,19 @@
+package com.inventory.message;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * All inventory changes of one order for one inventory queue, applied by the consumer in a single pass
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryCommandMessage implements Serializable {
+    private String orderId;
+    private List<InventoryUpdateMessage> lines; // One entry per SKU line (sku, quantity, operation)
+}
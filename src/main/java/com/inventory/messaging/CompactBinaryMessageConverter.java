@@ -0,0 +1,263 @@
+package com.inventory.messaging;
+
+import com.inventory.message.InventoryCommandMessage;
+import com.inventory.message.InventoryUpdateMessage;
+import com.inventory.message.OrderProcessedMessage;
+import com.inventory.message.OrderReceivedMessage;
+import com.inventory.model.Order;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-field binary encoding for the simulation messages (content type application/x-inventory-binary).
+ * Times are epoch seconds + nanos instead of ISO strings, enums and known operations are single bytes.
+ */
+public class CompactBinaryMessageConverter implements MessageConverter {
+
+    public static final String CONTENT_TYPE = "application/x-inventory-binary";
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final byte ORDER_RECEIVED = 1;
+    private static final byte INVENTORY_UPDATE = 2;
+    private static final byte ORDER_PROCESSED = 3;
+    private static final byte INVENTORY_COMMAND = 4;
+
+    private static final String[] OPERATIONS = {"RESERVE", "RELEASE", "DEDUCT", "REPLENISH"};
+    private static final Order.OrderType[] ORDER_TYPES = Order.OrderType.values();
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            if (object instanceof OrderReceivedMessage order) {
+                out.writeByte(ORDER_RECEIVED);
+                writeOrderReceived(out, order);
+            } else if (object instanceof InventoryUpdateMessage update) {
+                out.writeByte(INVENTORY_UPDATE);
+                writeInventoryUpdate(out, update);
+            } else if (object instanceof InventoryCommandMessage command) {
+                out.writeByte(INVENTORY_COMMAND);
+                writeInventoryCommand(out, command);
+            } else if (object instanceof OrderProcessedMessage processed) {
+                out.writeByte(ORDER_PROCESSED);
+                writeOrderProcessed(out, processed);
+            } else {
+                throw new MessageConversionException("Unsupported message type: " + object.getClass().getName());
+            }
+        } catch (IOException e) {
+            throw new MessageConversionException("Failed to encode " + object.getClass().getSimpleName(), e);
+        }
+
+        messageProperties.setContentType(CONTENT_TYPE);
+        byte[] body = bytes.toByteArray();
+        messageProperties.setContentLength(body.length);
+        return new Message(body, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(message.getBody()))) {
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new MessageConversionException("Unsupported binary format version: " + version);
+            }
+            byte type = in.readByte();
+            switch (type) {
+                case ORDER_RECEIVED:
+                    return readOrderReceived(in);
+                case INVENTORY_UPDATE:
+                    return readInventoryUpdate(in);
+                case ORDER_PROCESSED:
+                    return readOrderProcessed(in);
+                case INVENTORY_COMMAND:
+                    return readInventoryCommand(in);
+                default:
+                    throw new MessageConversionException("Unknown binary message type: " + type);
+            }
+        } catch (IOException e) {
+            throw new MessageConversionException("Failed to decode binary message", e);
+        }
+    }
+
+    private void writeOrderReceived(DataOutputStream out, OrderReceivedMessage order) throws IOException {
+        writeString(out, order.getOrderId());
+        out.writeByte(order.getOrderType() != null ? order.getOrderType().ordinal() : -1);
+        writeTime(out, order.getOrderPlacedTime());
+        writeTime(out, order.getOrderDueTime());
+        writeString(out, order.getCustomerId());
+        writeString(out, order.getSenderId());
+
+        List<OrderReceivedMessage.OrderItemDTO> items = order.getItems();
+        out.writeInt(items != null ? items.size() : -1);
+        if (items != null) {
+            for (OrderReceivedMessage.OrderItemDTO item : items) {
+                writeString(out, item.getSku());
+                writeInteger(out, item.getQuantity());
+                writeString(out, item.getTemperatureZone());
+            }
+        }
+    }
+
+    private OrderReceivedMessage readOrderReceived(DataInputStream in) throws IOException {
+        OrderReceivedMessage order = new OrderReceivedMessage();
+        order.setOrderId(readString(in));
+        byte orderType = in.readByte();
+        if (orderType < -1 || orderType >= ORDER_TYPES.length) {
+            throw new MessageConversionException("Unknown order type ordinal: " + orderType);
+        }
+        order.setOrderType(orderType >= 0 ? ORDER_TYPES[orderType] : null);
+        order.setOrderPlacedTime(readTime(in));
+        order.setOrderDueTime(readTime(in));
+        order.setCustomerId(readString(in));
+        order.setSenderId(readString(in));
+
+        int itemCount = in.readInt();
+        if (itemCount >= 0) {
+            List<OrderReceivedMessage.OrderItemDTO> items = new ArrayList<>(itemCount);
+            for (int i = 0; i < itemCount; i++) {
+                items.add(new OrderReceivedMessage.OrderItemDTO(readString(in), readInteger(in), readString(in)));
+            }
+            order.setItems(items);
+        }
+        return order;
+    }
+
+    private void writeInventoryUpdate(DataOutputStream out, InventoryUpdateMessage update) throws IOException {
+        writeString(out, update.getSku());
+        writeInteger(out, update.getQuantityChange());
+        writeInteger(out, update.getReservedQuantityChange());
+        int operation = operationCode(update.getOperation());
+        out.writeByte(operation);
+        if (operation < 0) {
+            writeString(out, update.getOperation());
+        }
+        writeString(out, update.getOrderId());
+    }
+
+    private InventoryUpdateMessage readInventoryUpdate(DataInputStream in) throws IOException {
+        InventoryUpdateMessage update = new InventoryUpdateMessage();
+        update.setSku(readString(in));
+        update.setQuantityChange(readInteger(in));
+        update.setReservedQuantityChange(readInteger(in));
+        byte operation = in.readByte();
+        update.setOperation(operation >= 0 ? OPERATIONS[operation] : readString(in));
+        update.setOrderId(readString(in));
+        return update;
+    }
+
+    private void writeInventoryCommand(DataOutputStream out, InventoryCommandMessage command) throws IOException {
+        writeString(out, command.getOrderId());
+        List<InventoryUpdateMessage> lines = command.getLines();
+        out.writeInt(lines != null ? lines.size() : -1);
+        if (lines != null) {
+            for (InventoryUpdateMessage line : lines) {
+                writeInventoryUpdate(out, line);
+            }
+        }
+    }
+
+    private InventoryCommandMessage readInventoryCommand(DataInputStream in) throws IOException {
+        InventoryCommandMessage command = new InventoryCommandMessage();
+        command.setOrderId(readString(in));
+        int lineCount = in.readInt();
+        if (lineCount >= 0) {
+            List<InventoryUpdateMessage> lines = new ArrayList<>(lineCount);
+            for (int i = 0; i < lineCount; i++) {
+                lines.add(readInventoryUpdate(in));
+            }
+            command.setLines(lines);
+        }
+        return command;
+    }
+
+    private void writeOrderProcessed(DataOutputStream out, OrderProcessedMessage processed) throws IOException {
+        writeString(out, processed.getOrderId());
+        writeString(out, processed.getStatus());
+        writeTime(out, processed.getProcessedTime());
+        writeString(out, processed.getMessage());
+    }
+
+    private OrderProcessedMessage readOrderProcessed(DataInputStream in) throws IOException {
+        OrderProcessedMessage processed = new OrderProcessedMessage();
+        processed.setOrderId(readString(in));
+        processed.setStatus(readString(in));
+        processed.setProcessedTime(readTime(in));
+        processed.setMessage(readString(in));
+        return processed;
+    }
+
+    private static int operationCode(String operation) {
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            if (OPERATIONS[i].equals(operation)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Strings: unsigned short byte length, 0xFFFF = null
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeShort(0xFFFF);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length >= 0xFFFF) {
+            throw new IOException("String field too long for binary format: " + utf8.length + " bytes");
+        }
+        out.writeShort(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readUnsignedShort();
+        if (length == 0xFFFF) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    // Integers: Integer.MIN_VALUE = null
+    private static void writeInteger(DataOutputStream out, Integer value) throws IOException {
+        out.writeInt(value != null ? value : Integer.MIN_VALUE);
+    }
+
+    private static Integer readInteger(DataInputStream in) throws IOException {
+        int value = in.readInt();
+        return value != Integer.MIN_VALUE ? value : null;
+    }
+
+    // Times: epoch seconds (UTC) + nanos, Long.MIN_VALUE = null
+    private static void writeTime(DataOutputStream out, LocalDateTime time) throws IOException {
+        if (time == null) {
+            out.writeLong(Long.MIN_VALUE);
+            return;
+        }
+        out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(time.getNano());
+    }
+
+    private static LocalDateTime readTime(DataInputStream in) throws IOException {
+        long epochSecond = in.readLong();
+        if (epochSecond == Long.MIN_VALUE) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(epochSecond, in.readInt(), ZoneOffset.UTC);
+    }
+}
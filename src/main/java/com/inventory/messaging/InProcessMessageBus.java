@@ -0,0 +1,126 @@
+package com.inventory.messaging;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * In-JVM transport: one bounded ring buffer and dispatcher thread per routing key.
+ * Messages are handed over as objects, without serialization; a full buffer blocks the publisher.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "inventory.messaging.transport", havingValue = "in-process")
+public class InProcessMessageBus implements SimulationMessageBus {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${inventory.messaging.in-process.buffer-size:65536}")
+    private int bufferSize;
+
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+
+    @Override
+    public void publish(String routingKey, Object message) {
+        publish(routingKey, message, () -> { });
+    }
+
+    /**
+     * Buffered messages are always delivered; only a routing key without a consumer drops the message
+     */
+    @Override
+    public void publish(String routingKey, Object message, Runnable onDropped) {
+        Route route = routes.get(routingKey);
+        if (route == null) {
+            log.debug("In-process bus: No consumer for routing key {}, message dropped", routingKey);
+            onDropped.run();
+            return;
+        }
+        try {
+            route.buffer.put(message);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while publishing to " + routingKey, e);
+        }
+    }
+
+    /**
+     * Deliver messages of a routing key one at a time
+     */
+    public <T> void subscribe(String routingKey, Class<T> type, Consumer<T> handler) {
+        subscribeBatch(routingKey, type, 1, batch -> batch.forEach(handler));
+    }
+
+    /**
+     * Deliver messages of a routing key in batches of up to maxBatchSize (whatever is buffered, never waits to fill)
+     */
+    public <T> void subscribeBatch(String routingKey, Class<T> type, int maxBatchSize, Consumer<List<T>> handler) {
+        Route route = new Route(routingKey, new ArrayBlockingQueue<>(bufferSize));
+        if (routes.putIfAbsent(routingKey, route) != null) {
+            throw new IllegalStateException("Routing key already has a consumer: " + routingKey);
+        }
+
+        Gauge.builder("in_process_bus_depth", route.buffer, BlockingQueue::size)
+                .description("Messages waiting in the in-process bus ring buffer")
+                .tag("route", routingKey)
+                .register(meterRegistry);
+
+        Thread dispatcher = new Thread(() -> dispatch(route, type, maxBatchSize, handler), "bus-" + routingKey);
+        dispatcher.setDaemon(true);
+        route.dispatcher = dispatcher;
+        dispatcher.start();
+        log.info("In-process bus: Subscribed consumer to {}", routingKey);
+    }
+
+    private <T> void dispatch(Route route, Class<T> type, int maxBatchSize, Consumer<List<T>> handler) {
+        List<Object> drained = new ArrayList<>(maxBatchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                drained.add(route.buffer.take());
+                route.buffer.drainTo(drained, maxBatchSize - 1);
+
+                List<T> batch = new ArrayList<>(drained.size());
+                for (Object message : drained) {
+                    batch.add(type.cast(message));
+                }
+                handler.accept(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("In-process bus: Consumer of {} failed on {} messages", route.routingKey, drained.size(), e);
+            } finally {
+                drained.clear();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        routes.values().forEach(route -> route.dispatcher.interrupt());
+    }
+
+    private static final class Route {
+        final String routingKey;
+        final BlockingQueue<Object> buffer;
+        Thread dispatcher;
+
+        Route(String routingKey, BlockingQueue<Object> buffer) {
+            this.routingKey = routingKey;
+            this.buffer = buffer;
+        }
+    }
+}
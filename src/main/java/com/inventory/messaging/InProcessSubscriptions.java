@@ -0,0 +1,65 @@
+package com.inventory.messaging;
+
+import com.inventory.message.InventoryCommandMessage;
+import com.inventory.message.OrderReceivedMessage;
+import com.inventory.service.InventoryManager;
+import com.inventory.service.OrderManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wires the in-process bus to the same handlers the @RabbitListener methods use
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "inventory.messaging.transport", havingValue = "in-process")
+public class InProcessSubscriptions {
+
+    private final InProcessMessageBus messageBus;
+    private final OrderManager orderManager;
+    private final InventoryManager inventoryManager;
+    private final InventoryPartitioner inventoryPartitioner;
+
+    @Value("${spring.rabbitmq.topic.prefix:sim}")
+    private String topicPrefix;
+
+    @Value("${inventory.inventory.batch.enabled:false}")
+    private boolean inventoryBatchEnabled;
+
+    @Value("${inventory.inventory.batch.size:200}")
+    private int inventoryBatchSize;
+
+    /**
+     * Subscribe before schedulers start publishing
+     */
+    @PostConstruct
+    public void subscribe() {
+        messageBus.subscribe(topicPrefix + ".order.received", OrderReceivedMessage.class,
+                orderManager::handleOrderReceived);
+
+        // One ring buffer and dispatcher per inventory partition (a single one when not partitioned)
+        List<String> inventoryRoutes = new ArrayList<>();
+        if (inventoryPartitioner.isPartitioned()) {
+            for (int partition = 0; partition < inventoryPartitioner.getPartitions(); partition++) {
+                inventoryRoutes.add(inventoryPartitioner.partitionRoutingKey(partition));
+            }
+        } else {
+            inventoryRoutes.add(topicPrefix + ".inventory.update");
+        }
+
+        for (String route : inventoryRoutes) {
+            if (inventoryBatchEnabled) {
+                messageBus.subscribeBatch(route, InventoryCommandMessage.class,
+                        inventoryBatchSize, inventoryManager::handleInventoryCommandBatch);
+            } else {
+                messageBus.subscribe(route, InventoryCommandMessage.class, inventoryManager::handleInventoryCommand);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.inventory.messaging;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Routes inventory updates to one of N partitions by SKU hash, so each SKU is always consumed in order by one consumer
+ */
+@Component
+public class InventoryPartitioner {
+
+    @Value("${spring.rabbitmq.topic.prefix:sim}")
+    private String topicPrefix;
+
+    @Value("${inventory.messaging.inventory-partitions:1}")
+    private int partitions;
+
+    public int getPartitions() {
+        return Math.max(1, partitions);
+    }
+
+    public boolean isPartitioned() {
+        return getPartitions() > 1;
+    }
+
+    public int partition(String sku) {
+        return Math.floorMod(sku.hashCode(), getPartitions());
+    }
+
+    /**
+     * Routing key (and queue name) for a SKU's inventory updates
+     */
+    public String routingKey(String sku) {
+        return isPartitioned() ? partitionRoutingKey(partition(sku)) : topicPrefix + ".inventory.update";
+    }
+
+    public String partitionRoutingKey(int partition) {
+        return topicPrefix + ".inventory.update." + partition;
+    }
+}
@@ -0,0 +1,287 @@
+package com.inventory.messaging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes through RabbitMQ (default transport).
+ * With confirms enabled, every publish is correlated and tracked until the broker acks it; at most
+ * max-in-flight messages are unconfirmed at a time (publishers wait up to window-wait-ms beyond that, then the
+ * message is dropped). Nacked, returned or unconfirmed-after-confirm-timeout messages are resent up to
+ * max-attempts; a message that still fails is dropped and its publisher's onDropped callback runs.
+ * Without confirms, and for messages unconfirmed at shutdown, a lost message goes unnoticed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "inventory.messaging.transport", havingValue = "rabbit", matchIfMissing = true)
+public class RabbitMessageBus implements SimulationMessageBus {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${spring.rabbitmq.exchange.name:symbotic.simulation}")
+    private String exchangeName;
+
+    @Value("${inventory.messaging.confirms.enabled:true}")
+    private boolean confirmsEnabled;
+
+    @Value("${inventory.messaging.confirms.max-in-flight:1000}")
+    private int maxInFlight;
+
+    @Value("${inventory.messaging.confirms.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${inventory.messaging.confirms.window-wait-ms:5000}")
+    private long windowWaitMs;
+
+    @Value("${inventory.messaging.confirms.confirm-timeout-ms:30000}")
+    private long confirmTimeoutMs;
+
+    @Value("${inventory.messaging.confirms.shutdown-wait-ms:5000}")
+    private long shutdownWaitMs;
+
+    private final Map<String, PendingPublish> pending = new ConcurrentHashMap<>();
+    private Semaphore inFlightWindow;
+    private ScheduledExecutorService resendExecutor;
+
+    private Timer confirmLatencyTimer;
+    private Counter nackCounter;
+    private Counter returnCounter;
+    private Counter resendCounter;
+    private Counter droppedCounter;
+    private Counter timeoutCounter;
+
+    @PostConstruct
+    public void init() {
+        if (!confirmsEnabled) {
+            return;
+        }
+        inFlightWindow = new Semaphore(maxInFlight);
+        // Callbacks run on the connection's thread, which must not publish; resends are handed off.
+        // The timeout sweep runs here too, not on the shared scheduler, which may be the one blocked on the window.
+        resendExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rabbit-confirm-resend");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        confirmLatencyTimer = Timer.builder("publisher_confirm_latency")
+                .description("Time from publish to broker confirm")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        nackCounter = meterRegistry.counter("publisher_nacks_total");
+        returnCounter = meterRegistry.counter("publisher_returns_total");
+        resendCounter = meterRegistry.counter("publisher_resends_total");
+        droppedCounter = meterRegistry.counter("publisher_dropped_total");
+        timeoutCounter = meterRegistry.counter("publisher_confirm_timeouts_total");
+        Gauge.builder("publisher_in_flight", pending, Map::size)
+                .description("Published messages not yet confirmed by the broker")
+                .register(meterRegistry);
+
+        rabbitTemplate.setMandatory(true);
+        rabbitTemplate.setConfirmCallback(this::onConfirm);
+
+        long sweepMs = Math.max(1, Math.min(confirmTimeoutMs, 1000));
+        resendExecutor.scheduleWithFixedDelay(this::expireUnconfirmed, sweepMs, sweepMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void publish(String routingKey, Object message) {
+        publish(routingKey, message, () -> { });
+    }
+
+    @Override
+    public void publish(String routingKey, Object message, Runnable onDropped) {
+        if (!confirmsEnabled) {
+            rabbitTemplate.convertAndSend(exchangeName, routingKey, message);
+            return;
+        }
+
+        PendingPublish publish = new PendingPublish(routingKey, message, onDropped);
+        try {
+            if (!inFlightWindow.tryAcquire(windowWaitMs, TimeUnit.MILLISECONDS)) {
+                log.error("Publisher: No confirm window for message to {} within {} ms ({} unconfirmed), dropping it",
+                        routingKey, windowWaitMs, pending.size());
+                notifyDropped(publish);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for publish window on " + routingKey, e);
+        }
+
+        try {
+            send(UUID.randomUUID().toString(), publish);
+        } catch (RuntimeException e) {
+            inFlightWindow.release();
+            throw e;
+        }
+    }
+
+    private void send(String correlationId, PendingPublish publish) {
+        publish.attempts++;
+        publish.sentNanos = System.nanoTime();
+        pending.put(correlationId, publish);
+        try {
+            rabbitTemplate.convertAndSend(exchangeName, publish.routingKey, publish.message,
+                    new CorrelationData(correlationId));
+        } catch (RuntimeException e) {
+            pending.remove(correlationId);
+            throw e;
+        }
+    }
+
+    /**
+     * Broker confirm: settle on ack, resend on nack or return (a returned message is still acked)
+     */
+    private void onConfirm(CorrelationData correlation, boolean ack, String cause) {
+        if (correlation == null) {
+            return;
+        }
+        PendingPublish publish = pending.remove(correlation.getId());
+        if (publish == null) {
+            return;
+        }
+
+        ReturnedMessage returned = correlation.getReturned();
+        if (ack && returned == null) {
+            confirmLatencyTimer.record(System.nanoTime() - publish.sentNanos, TimeUnit.NANOSECONDS);
+            inFlightWindow.release();
+            return;
+        }
+
+        if (returned != null) {
+            returnCounter.increment();
+            log.warn("Publisher: Message to {} returned ({} {})", publish.routingKey,
+                    returned.getReplyCode(), returned.getReplyText());
+        } else {
+            nackCounter.increment();
+            log.warn("Publisher: Message to {} nacked: {}", publish.routingKey, cause);
+        }
+
+        if (publish.attempts >= maxAttempts) {
+            log.error("Publisher: Giving up on message to {} after {} attempts", publish.routingKey, publish.attempts);
+            resendExecutor.execute(() -> drop(publish));
+            return;
+        }
+        resendExecutor.execute(() -> resend(publish));
+    }
+
+    /**
+     * Treat messages unconfirmed for longer than the confirm timeout as lost: resend them, or drop them once
+     * out of attempts, so a confirm that never arrives cannot hold a window slot forever
+     */
+    private void expireUnconfirmed() {
+        long cutoff = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(confirmTimeoutMs);
+        try {
+            for (Map.Entry<String, PendingPublish> entry : pending.entrySet()) {
+                PendingPublish publish = entry.getValue();
+                if (publish.sentNanos - cutoff > 0 || !pending.remove(entry.getKey(), publish)) {
+                    continue; // Recent, or confirmed in the meantime
+                }
+                timeoutCounter.increment();
+                log.warn("Publisher: No confirm for message to {} within {} ms", publish.routingKey, confirmTimeoutMs);
+                if (publish.attempts >= maxAttempts) {
+                    log.error("Publisher: Giving up on message to {} after {} attempts", publish.routingKey, publish.attempts);
+                    drop(publish);
+                } else {
+                    resend(publish);
+                }
+            }
+        } catch (RuntimeException e) {
+            // Keep the sweep scheduled; an exception would cancel it
+            log.error("Publisher: Confirm timeout sweep failed", e);
+        }
+    }
+
+    private void resend(PendingPublish publish) {
+        try {
+            resendCounter.increment();
+            send(UUID.randomUUID().toString(), publish);
+        } catch (RuntimeException e) {
+            log.error("Publisher: Failed to resend message to {}", publish.routingKey, e);
+            drop(publish);
+        }
+    }
+
+    /**
+     * Give up on a message holding a window slot and tell its publisher (runs on the resend thread, never the connection's)
+     */
+    private void drop(PendingPublish publish) {
+        inFlightWindow.release();
+        notifyDropped(publish);
+    }
+
+    /**
+     * Run a dropped message's callback on the calling thread (resend thread, or the publisher's on a window timeout)
+     */
+    private void notifyDropped(PendingPublish publish) {
+        droppedCounter.increment();
+        try {
+            publish.onDropped.run();
+        } catch (RuntimeException e) {
+            log.error("Publisher: Drop callback failed for message to {}", publish.routingKey, e);
+        }
+    }
+
+    /**
+     * Give outstanding confirms a chance to arrive before the connection closes
+     */
+    @PreDestroy
+    public void awaitConfirms() {
+        if (!confirmsEnabled) {
+            return;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownWaitMs);
+        while (!pending.isEmpty() && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (!pending.isEmpty()) {
+            log.warn("Publisher: {} messages still unconfirmed at shutdown", pending.size());
+        }
+        resendExecutor.shutdown();
+    }
+
+    /**
+     * A published message awaiting its confirm
+     */
+    private static final class PendingPublish {
+        final String routingKey;
+        final Object message;
+        final Runnable onDropped;
+        volatile int attempts;
+        volatile long sentNanos;
+
+        PendingPublish(String routingKey, Object message, Runnable onDropped) {
+            this.routingKey = routingKey;
+            this.message = message;
+            this.onDropped = onDropped;
+        }
+    }
+}
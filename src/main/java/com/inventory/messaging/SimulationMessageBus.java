@@ -0,0 +1,22 @@
+package com.inventory.messaging;
+
+/**
+ * Transport between OrderInjector, OrderManager and InventoryManager.
+ * Routing keys are the broker routing keys, e.g. sim.order.received.
+ */
+public interface SimulationMessageBus {
+
+    /**
+     * Publish a message to all consumers of the routing key
+     */
+    void publish(String routingKey, Object message);
+
+    /**
+     * Publish a message and run onDropped if the transport gives up on it after publish has returned.
+     * Never runs for a delivered message, nor when publish itself throws. Transports that cannot lose
+     * an accepted message just publish.
+     */
+    default void publish(String routingKey, Object message, Runnable onDropped) {
+        publish(routingKey, message);
+    }
+}
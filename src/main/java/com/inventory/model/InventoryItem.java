@@ -27,6 +27,9 @@ public class InventoryItem {
     
     private Integer lowStockThreshold;
     
+    @Version
+    private Long version;
+    
     public Integer getAvailableQuantity() {
         return quantity - reservedQuantity;
     }
@@ -37,6 +37,9 @@ public class Order {
     
     private String customerId;
     
+    // Compact status history, e.g. RECEIVED@08:00:00>PROCESSING@08:00:00>COMPLETED@08:00:00
+    private String statusTrail;
+    
     public enum OrderType {
         PICKUP, DELIVERY
     }
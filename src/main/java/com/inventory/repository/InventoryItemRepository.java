@@ -2,11 +2,36 @@ package com.inventory.repository;
 
 import com.inventory.model.InventoryItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface InventoryItemRepository extends JpaRepository<InventoryItem, Long> {
     Optional<InventoryItem> findBySku(String sku);
+
+    @Query("select i.sku from InventoryItem i where i.sku in :skus")
+    Set<String> findExistingSkus(@Param("skus") Collection<String> skus);
+
+    List<InventoryItem> findBySkuIn(Collection<String> skus);
+
+    @Query("select i.sku from InventoryItem i where i.temperatureZone = :zone order by i.sku")
+    List<String> findSkusByTemperatureZone(@Param("zone") String zone);
+
+    /**
+     * SKU and zone of every item, without loading entities
+     */
+    @Query("select i.sku as sku, i.temperatureZone as temperatureZone from InventoryItem i order by i.sku")
+    List<SkuZone> findAllSkuZones();
+
+    interface SkuZone {
+        String getSku();
+
+        String getTemperatureZone();
+    }
 }
@@ -1,12 +1,46 @@
 package com.inventory.repository;
 
 import com.inventory.model.Order;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     Optional<Order> findByOrderId(String orderId);
+
+    boolean existsByOrderId(String orderId);
+
+    long countByStatus(Order.OrderStatus status);
+
+    /**
+     * Keyset page: IDs after the cursor matching the filters, in ID order (page size from the Pageable)
+     */
+    @Query("select o.id from Order o where o.id > :afterId"
+            + " and (:status is null or o.status = :status)"
+            + " and (:orderType is null or o.orderType = :orderType)"
+            + " and (:customerId is null or o.customerId = :customerId)"
+            + " and (:placedFrom is null or o.orderPlacedTime >= :placedFrom)"
+            + " and (:placedTo is null or o.orderPlacedTime < :placedTo)"
+            + " order by o.id")
+    List<Long> findIdsAfter(@Param("afterId") long afterId,
+                            @Param("status") Order.OrderStatus status,
+                            @Param("orderType") Order.OrderType orderType,
+                            @Param("customerId") String customerId,
+                            @Param("placedFrom") LocalDateTime placedFrom,
+                            @Param("placedTo") LocalDateTime placedTo,
+                            Pageable page);
+
+    /**
+     * Orders with their items in one query
+     */
+    @Query("select distinct o from Order o left join fetch o.items where o.id in :ids order by o.id")
+    List<Order> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
 }
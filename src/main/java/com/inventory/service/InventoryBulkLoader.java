@@ -0,0 +1,70 @@
+package com.inventory.service;
+
+import com.inventory.model.InventoryItem;
+import com.inventory.repository.InventoryItemRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Set-based inventory upsert using JDBC batch statements
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InventoryBulkLoader {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO inventory_items (sku, name, quantity, reserved_quantity, temperature_zone, low_stock_threshold, version) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, 0)";
+
+    private static final String UPDATE_SQL =
+            "UPDATE inventory_items SET name = ?, quantity = ?, reserved_quantity = ?, temperature_zone = ?, "
+                    + "low_stock_threshold = ?, version = version + 1 WHERE sku = ?";
+
+    private final InventoryItemRepository inventoryRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert new SKUs and update existing ones in one transaction (last row wins for duplicate SKUs)
+     */
+    @Transactional
+    public int upsert(Collection<InventoryItem> chunk) {
+        Map<String, InventoryItem> itemsBySku = new LinkedHashMap<>();
+        for (InventoryItem item : chunk) {
+            itemsBySku.put(item.getSku(), item);
+        }
+
+        Set<String> existingSkus = inventoryRepository.findExistingSkus(itemsBySku.keySet());
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        for (InventoryItem item : itemsBySku.values()) {
+            int reservedQuantity = item.getReservedQuantity() != null ? item.getReservedQuantity() : 0;
+            if (existingSkus.contains(item.getSku())) {
+                updates.add(new Object[]{item.getName(), item.getQuantity(), reservedQuantity,
+                        item.getTemperatureZone(), item.getLowStockThreshold(), item.getSku()});
+            } else {
+                inserts.add(new Object[]{item.getSku(), item.getName(), item.getQuantity(), reservedQuantity,
+                        item.getTemperatureZone(), item.getLowStockThreshold()});
+            }
+        }
+
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+        }
+        log.debug("Bulk upsert: {} inserted, {} updated", inserts.size(), updates.size());
+        return itemsBySku.size();
+    }
+}
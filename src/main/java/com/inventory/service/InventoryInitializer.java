@@ -1,8 +1,11 @@
 package com.inventory.service;
 
+import com.inventory.journal.InventoryEventLog;
 import com.inventory.model.InventoryCSVRecord;
+import com.inventory.model.InventoryItem;
 import com.opencsv.bean.CsvToBean;
 import com.opencsv.bean.CsvToBeanBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -15,7 +18,10 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
@@ -23,6 +29,9 @@ import java.util.List;
 public class InventoryInitializer {
 
     private final InventoryManager inventoryManager;
+    private final InventoryBulkLoader inventoryBulkLoader;
+    private final MeterRegistry meterRegistry;
+    private final InventoryEventLog inventoryEventLog;
 
     @Value("${inventory.inventory.csv-file:data/inventory_sample.csv}")
     private String csvFilePath;
@@ -33,11 +42,30 @@ public class InventoryInitializer {
     @Value("${inventory.inventory.low-stock-threshold:100}")
     private int defaultLowStockThreshold;
 
+    @Value("${inventory.inventory.bulk-load.enabled:false}")
+    private boolean bulkLoadEnabled;
+
+    @Value("${inventory.inventory.bulk-load.chunk-size:5000}")
+    private int bulkLoadChunkSize;
+
+    /**
+     * Quantities recovered from the inventory event log, consumed as CSV rows are loaded.
+     * Only on-hand quantity is restored: orders are not persisted across restarts (create-drop schema),
+     * so a recovered reservation would hold stock for an order that no longer exists.
+     */
+    private Map<String, int[]> recovered;
+
     /**
-     * Auto-initialize inventory from CSV file on application startup
+     * Auto-initialize inventory from CSV file on application startup, then apply state recovered from the event log
      */
     @PostConstruct
-    public void initializeInventoryFromCSV() {
+    public void initialize() {
+        recovered = inventoryEventLog.recoveredState();
+        initializeInventoryFromCSV();
+        restoreRecovered();
+    }
+
+    private void initializeInventoryFromCSV() {
         if (!autoInitialize) {
             log.info("Auto-initialize inventory is disabled");
             return;
@@ -59,19 +87,18 @@ public class InventoryInitializer {
                         .withSkipLines(0)
                         .build();
 
+                if (bulkLoadEnabled) {
+                    bulkLoad(csvToBean);
+                    return;
+                }
+
                 List<InventoryCSVRecord> records = csvToBean.parse();
                 
                 int initializedCount = 0;
                 for (InventoryCSVRecord record : records) {
-                    String sku = record.getSku();
-                    String name = record.getName() != null ? record.getName() : "Item " + sku;
-                    int quantity = record.getQuantity() != null ? record.getQuantity() : 1000;
-                    String temperatureZone = record.getTemperatureZone() != null && !record.getTemperatureZone().isEmpty()
-                            ? record.getTemperatureZone() : "AMBIENT";
-                    int lowStockThreshold = record.getLowStockThreshold() != null 
-                            ? record.getLowStockThreshold() : defaultLowStockThreshold;
-                    
-                    inventoryManager.initializeInventoryFromCSV(sku, name, quantity, temperatureZone, lowStockThreshold);
+                    InventoryItem item = toInventoryItem(record);
+                    inventoryManager.initializeInventoryFromCSV(item.getSku(), item.getName(), item.getQuantity(),
+                            item.getTemperatureZone(), item.getLowStockThreshold());
                     initializedCount++;
                 }
                 
@@ -85,4 +112,65 @@ public class InventoryInitializer {
             log.info("Inventory will be created on demand when orders arrive");
         }
     }
+
+    /**
+     * Parse CSV in chunks and upsert each chunk with set-based lookups and JDBC batches
+     */
+    private void bulkLoad(CsvToBean<InventoryCSVRecord> csvToBean) {
+        long start = System.nanoTime();
+        long rows = 0;
+        List<InventoryItem> chunk = new ArrayList<>(bulkLoadChunkSize);
+
+        for (InventoryCSVRecord record : csvToBean) {
+            chunk.add(toInventoryItem(record));
+            if (chunk.size() >= bulkLoadChunkSize) {
+                rows += inventoryBulkLoader.upsert(chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            rows += inventoryBulkLoader.upsert(chunk);
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        double elapsedSeconds = elapsedNanos / 1_000_000_000.0;
+        meterRegistry.timer("inventory_bulk_load_time").record(elapsedNanos, TimeUnit.NANOSECONDS);
+        meterRegistry.counter("inventory_bulk_load_rows_total").increment(rows);
+        log.info("Bulk loaded inventory for {} SKUs in {} ms ({} rows/s)",
+                rows, elapsedNanos / 1_000_000, elapsedSeconds > 0 ? Math.round(rows / elapsedSeconds) : rows);
+    }
+
+    /**
+     * Restore recovered SKUs that were not in the CSV (created on demand in the previous run)
+     */
+    private void restoreRecovered() {
+        if (recovered.isEmpty()) {
+            return;
+        }
+        recovered.forEach((sku, restored) -> inventoryManager.restoreInventory(sku, restored[0]));
+        log.info("Restored {} SKUs not in the inventory CSV from the inventory event log", recovered.size());
+        recovered.clear();
+    }
+
+    /**
+     * Map CSV record to inventory item, applying defaults for optional columns and the recovered quantity
+     */
+    private InventoryItem toInventoryItem(InventoryCSVRecord record) {
+        String sku = record.getSku();
+        InventoryItem item = new InventoryItem();
+        item.setSku(sku);
+        item.setName(record.getName() != null ? record.getName() : "Item " + sku);
+        item.setQuantity(record.getQuantity() != null ? record.getQuantity() : 1000);
+        item.setReservedQuantity(0);
+        item.setTemperatureZone(record.getTemperatureZone() != null && !record.getTemperatureZone().isEmpty()
+                ? record.getTemperatureZone() : "AMBIENT");
+        item.setLowStockThreshold(record.getLowStockThreshold() != null
+                ? record.getLowStockThreshold() : defaultLowStockThreshold);
+
+        int[] restored = recovered.remove(sku);
+        if (restored != null) {
+            item.setQuantity(restored[0]);
+        }
+        return item;
+    }
 }
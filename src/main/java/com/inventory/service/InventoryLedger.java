@@ -0,0 +1,757 @@
+package com.inventory.service;
+
+import com.inventory.journal.InventoryEventLog;
+import com.inventory.model.InventoryItem;
+import com.inventory.repository.InventoryItemRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Authoritative in-memory inventory state keyed by SKU.
+ * Updates are applied in memory and dirty rows are written back to the database in batches.
+ * Clean entries are evicted when idle longer than the TTL or when the ledger grows beyond its size bound;
+ * they are re-read from the database on next access.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InventoryLedger {
+
+    private final InventoryItemRepository inventoryRepository;
+    private final MeterRegistry meterRegistry;
+    private final OptimisticRetryExecutor optimisticRetry;
+    private final InventoryEventLog inventoryEventLog;
+
+    @Value("${inventory.inventory.initial-stock:1000}")
+    private int initialStock;
+
+    @Value("${inventory.inventory.low-stock-threshold:100}")
+    private int lowStockThreshold;
+
+    @Value("${inventory.ledger.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    @Value("${inventory.ledger.cache.max-entries:100000}")
+    private int maxEntries;
+
+    @Value("${inventory.ledger.cache.ttl-ms:600000}")
+    private long ttlMs;
+
+    private final Map<String, LedgerEntry> entries = new ConcurrentHashMap<>();
+    private final Set<String> dirtySkus = ConcurrentHashMap.newKeySet();
+    private final Object flushLock = new Object();
+    // Changes record under the read lock; opening a cut takes the write lock, so no change spans the cut
+    private final ReentrantReadWriteLock changeGate = new ReentrantReadWriteLock();
+    private final List<StockCut> openCuts = new CopyOnWriteArrayList<>();
+
+    private Timer flushTimer;
+    private Counter flushedItemsCounter;
+    private Counter flushFailuresCounter;
+    private Counter hitCounter;
+    private Counter missCounter;
+    private Counter sizeEvictionCounter;
+    private Counter ttlEvictionCounter;
+
+    @PostConstruct
+    public void registerMetrics() {
+        flushTimer = Timer.builder("inventory_ledger_flush_time")
+                .description("Time taken to write a batch of dirty inventory rows")
+                .register(meterRegistry);
+        flushedItemsCounter = meterRegistry.counter("inventory_ledger_flushed_items_total");
+        flushFailuresCounter = meterRegistry.counter("inventory_ledger_flush_failures_total");
+        Gauge.builder("inventory_ledger_dirty_items", dirtySkus, Set::size)
+                .description("Inventory rows changed in memory but not yet written")
+                .register(meterRegistry);
+        Gauge.builder("inventory_ledger_flush_lag_seconds", this, InventoryLedger::oldestPendingChangeSeconds)
+                .description("Age of the oldest inventory change not yet written")
+                .register(meterRegistry);
+        hitCounter = meterRegistry.counter("inventory_cache_requests_total", "result", "hit");
+        missCounter = meterRegistry.counter("inventory_cache_requests_total", "result", "miss");
+        sizeEvictionCounter = meterRegistry.counter("inventory_cache_evictions_total", "cause", "size");
+        ttlEvictionCounter = meterRegistry.counter("inventory_cache_evictions_total", "cause", "ttl");
+        Gauge.builder("inventory_cache_size", entries, Map::size)
+                .description("Inventory rows held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Apply a mutation to a SKU under its lock and mark it for write-behind (auto-create if not exists;
+     * meant for initialization, order and inventory command paths use {@link #updateExistingAll} or {@link #lockExisting})
+     */
+    public void update(String sku, Consumer<InventoryItem> mutation) {
+        LedgerEntry entry = lockEntry(sku);
+        try {
+            mutation.accept(entry.item);
+            recordChange(entry);
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    /**
+     * Apply mutations to several existing SKUs all or nothing; never creates a row. Entries are locked in SKU order
+     * (as reservations lock them), each mutation runs on a copy, and only once all have run are the quantities
+     * written back and recorded together, so an exception leaves every SKU unchanged.
+     * Returns copies of the updated rows; unknown SKUs are skipped.
+     */
+    public List<InventoryItem> updateExistingAll(Map<String, Consumer<InventoryItem>> mutations) {
+        preload(mutations.keySet());
+        List<LedgerEntry> locked = new ArrayList<>(mutations.size());
+        try {
+            for (String sku : new TreeSet<>(mutations.keySet())) {
+                LedgerEntry entry = lockExisting(sku);
+                if (entry != null) {
+                    locked.add(entry);
+                }
+            }
+
+            List<InventoryItem> updated = new ArrayList<>(locked.size());
+            for (LedgerEntry entry : locked) {
+                InventoryItem copy = copyOf(entry.item);
+                mutations.get(copy.getSku()).accept(copy);
+                updated.add(copy);
+            }
+            for (int i = 0; i < locked.size(); i++) {
+                InventoryItem item = locked.get(i).item;
+                item.setQuantity(updated.get(i).getQuantity());
+                item.setReservedQuantity(updated.get(i).getReservedQuantity());
+            }
+            recordChanges(locked);
+            return updated;
+        } finally {
+            for (int i = locked.size() - 1; i >= 0; i--) {
+                locked.get(i).lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Apply a mutation to each of several existing SKUs under its own lock, loading all uncached ones in one query;
+     * unknown SKUs are skipped, never created
+     */
+    public void updateAll(Collection<String> skus, Consumer<InventoryItem> mutation) {
+        Set<String> known = new LinkedHashSet<>();
+        List<String> missing = new ArrayList<>();
+        for (String sku : skus) {
+            if (entries.containsKey(sku)) {
+                known.add(sku);
+            } else {
+                missing.add(sku);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (InventoryItem stored : inventoryRepository.findBySkuIn(missing)) {
+                entries.computeIfAbsent(stored.getSku(), key -> new LedgerEntry(stored));
+                known.add(stored.getSku());
+            }
+        }
+        for (String sku : known) {
+            update(sku, mutation);
+        }
+    }
+
+    /**
+     * Get a consistent copy of a SKU, reading through to the database; never creates a row
+     */
+    public Optional<InventoryItem> find(String sku) {
+        while (true) {
+            LedgerEntry entry = entries.get(sku);
+            if (entry != null) {
+                hitCounter.increment();
+            } else {
+                missCounter.increment();
+                InventoryItem stored = inventoryRepository.findBySku(sku).orElse(null);
+                if (stored == null) {
+                    return Optional.empty();
+                }
+                entry = entries.computeIfAbsent(sku, key -> new LedgerEntry(stored));
+            }
+
+            InventoryItem copy = copyIfLive(entry);
+            if (copy != null) {
+                return Optional.of(copy);
+            }
+        }
+    }
+
+    /**
+     * Get consistent copies of several SKUs, loading all uncached ones in one query; unknown SKUs are skipped
+     */
+    public List<InventoryItem> findAll(Collection<String> skus) {
+        Set<String> requested = new LinkedHashSet<>(skus);
+        List<String> missing = new ArrayList<>();
+        for (String sku : requested) {
+            if (entries.containsKey(sku)) {
+                hitCounter.increment();
+            } else {
+                missing.add(sku);
+            }
+        }
+        if (!missing.isEmpty()) {
+            missCounter.increment(missing.size());
+            for (InventoryItem stored : inventoryRepository.findBySkuIn(missing)) {
+                entries.computeIfAbsent(stored.getSku(), key -> new LedgerEntry(stored));
+            }
+        }
+
+        List<InventoryItem> found = new ArrayList<>(requested.size());
+        for (String sku : requested) {
+            LedgerEntry entry = entries.get(sku);
+            InventoryItem copy = entry != null ? copyIfLive(entry) : null;
+            if (copy != null) {
+                found.add(copy);
+            } else if (entry != null) {
+                find(sku).ifPresent(found::add); // Evicted in between
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Open a point-in-time cut of quantities without locking the catalogue. Registering the cut waits only for
+     * changes in progress; afterwards the first change to each SKU saves its prior state into the cut, so the cut
+     * holds one entry per SKU changed while it is open, not one per SKU. Close it when done.
+     */
+    public StockCut openCut() {
+        StockCut cut = new StockCut();
+        changeGate.writeLock().lock();
+        try {
+            openCuts.add(cut);
+        } finally {
+            changeGate.writeLock().unlock();
+        }
+        return cut;
+    }
+
+    /**
+     * SKUs held in memory whose current temperature zone matches, including zone changes not yet written
+     */
+    public List<String> cachedSkusInZone(String temperatureZone) {
+        List<String> skus = new ArrayList<>();
+        for (LedgerEntry entry : entries.values()) {
+            entry.lock.lock();
+            try {
+                if (!entry.evicted && temperatureZone.equals(entry.item.getTemperatureZone())) {
+                    skus.add(entry.item.getSku());
+                }
+            } finally {
+                entry.lock.unlock();
+            }
+        }
+        return skus;
+    }
+
+    private InventoryItem copyIfLive(LedgerEntry entry) {
+        entry.lock.lock();
+        try {
+            if (entry.evicted) {
+                return null;
+            }
+            entry.lastAccessNanos = System.nanoTime();
+            return copyOf(entry.item);
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    /**
+     * Lock the live entry for a SKU, loading or creating the row on first access (caller must unlock).
+     * Retries if the entry was evicted between lookup and lock.
+     */
+    private LedgerEntry lockEntry(String sku) {
+        while (true) {
+            LedgerEntry entry = entry(sku);
+            entry.lock.lock();
+            if (!entry.evicted) {
+                entry.lastAccessNanos = System.nanoTime();
+                return entry;
+            }
+            entry.lock.unlock();
+        }
+    }
+
+    /**
+     * Lock the live entry for an existing SKU, reading through to the database; never creates a row.
+     * Returns null for an unknown SKU (caller must unlock otherwise).
+     */
+    LedgerEntry lockExisting(String sku) {
+        while (true) {
+            LedgerEntry entry = entries.get(sku);
+            if (entry != null) {
+                hitCounter.increment();
+            } else {
+                missCounter.increment();
+                InventoryItem stored = inventoryRepository.findBySku(sku).orElse(null);
+                if (stored == null) {
+                    return null;
+                }
+                entry = entries.computeIfAbsent(sku, key -> new LedgerEntry(stored));
+            }
+            entry.lock.lock();
+            if (!entry.evicted) {
+                entry.lastAccessNanos = System.nanoTime();
+                return entry;
+            }
+            entry.lock.unlock();
+        }
+    }
+
+    /**
+     * Bring several existing SKUs into memory with one query, so locking them afterwards reads nothing
+     */
+    void preload(Collection<String> skus) {
+        List<String> missing = new ArrayList<>();
+        for (String sku : skus) {
+            if (!entries.containsKey(sku)) {
+                missing.add(sku);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (InventoryItem stored : inventoryRepository.findBySkuIn(missing)) {
+                entries.computeIfAbsent(stored.getSku(), key -> new LedgerEntry(stored));
+            }
+        }
+    }
+
+    private LedgerEntry entry(String sku) {
+        LedgerEntry entry = entries.get(sku);
+        if (entry != null) {
+            hitCounter.increment();
+            return entry;
+        }
+        missCounter.increment();
+        // Load (or create) outside computeIfAbsent so no repository call runs under the map's bin lock
+        InventoryItem item = loadOrCreate(sku);
+        return entries.computeIfAbsent(sku, key -> new LedgerEntry(item));
+    }
+
+    /**
+     * Append an entry's new state to the event log and mark it for write-behind (caller must hold the entry lock)
+     */
+    void recordChange(LedgerEntry entry) {
+        changeGate.readLock().lock();
+        try {
+            record(entry);
+        } finally {
+            changeGate.readLock().unlock();
+        }
+    }
+
+    /**
+     * Record changes made together to several entries, so an open cut sees all of them or none
+     * (caller must hold every entry lock)
+     */
+    void recordChanges(List<LedgerEntry> changed) {
+        changeGate.readLock().lock();
+        try {
+            for (LedgerEntry entry : changed) {
+                record(entry);
+            }
+        } finally {
+            changeGate.readLock().unlock();
+        }
+    }
+
+    private void record(LedgerEntry entry) {
+        InventoryItem item = entry.item;
+        for (StockCut cut : openCuts) {
+            cut.saveRecorded(entry);
+        }
+        entry.recordedQuantity = item.getQuantity();
+        entry.recordedReserved = item.getReservedQuantity();
+        inventoryEventLog.append(item.getSku(), item.getQuantity(), item.getReservedQuantity());
+        markDirty(entry);
+    }
+
+    /**
+     * Mark an entry as changed (caller must hold the entry lock)
+     */
+    void markDirty(LedgerEntry entry) {
+        if (entry.dirtySinceNanos == 0) {
+            entry.dirtySinceNanos = System.nanoTime();
+        }
+        dirtySkus.add(entry.item.getSku());
+    }
+
+    /**
+     * Read a row or create it with default stock; only reached from explicit initialization through {@link #update}
+     */
+    private InventoryItem loadOrCreate(String sku) {
+        return inventoryRepository.findBySku(sku).orElseGet(() -> {
+            InventoryItem item = new InventoryItem();
+            item.setSku(sku);
+            item.setName("Item " + sku);
+            item.setQuantity(initialStock);
+            item.setReservedQuantity(0);
+            item.setTemperatureZone("AMBIENT");
+            item.setLowStockThreshold(lowStockThreshold);
+            try {
+                return inventoryRepository.save(item);
+            } catch (DataIntegrityViolationException e) {
+                // Created concurrently by another initializer; use its row
+                return inventoryRepository.findBySku(sku).orElseThrow(() -> e);
+            }
+        });
+    }
+
+    /**
+     * Write dirty rows back to the database in batches
+     */
+    @Scheduled(fixedDelayString = "${inventory.ledger.flush-interval-ms:500}")
+    public void flush() {
+        if (dirtySkus.isEmpty()) {
+            return;
+        }
+
+        synchronized (flushLock) {
+            List<InventoryItem> batch = new ArrayList<>(flushBatchSize);
+            Iterator<String> iterator = dirtySkus.iterator();
+            while (iterator.hasNext()) {
+                String sku = iterator.next();
+                iterator.remove();
+
+                LedgerEntry entry = entries.get(sku);
+                if (entry == null) {
+                    continue;
+                }
+                entry.lock.lock();
+                try {
+                    batch.add(copyOf(entry.item));
+                    entry.dirtySinceNanos = 0;
+                } finally {
+                    entry.lock.unlock();
+                }
+
+                if (batch.size() >= flushBatchSize) {
+                    writeBatch(batch);
+                    batch = new ArrayList<>(flushBatchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+            }
+        }
+    }
+
+    private void writeBatch(List<InventoryItem> batch) {
+        long start = System.nanoTime();
+        try {
+            adoptVersions(inventoryRepository.saveAll(batch));
+            flushedItemsCounter.increment(batch.size());
+            log.debug("Inventory Ledger: Flushed {} dirty items", batch.size());
+        } catch (OptimisticLockingFailureException e) {
+            // Row changed outside the ledger: merge item by item onto the current row
+            log.warn("Inventory Ledger: Version conflict in batch of {} items, merging item by item", batch.size());
+            for (InventoryItem item : batch) {
+                writeItem(item);
+            }
+        } catch (Exception e) {
+            flushFailuresCounter.increment();
+            log.error("Inventory Ledger: Failed to flush {} items, will retry on next flush", batch.size(), e);
+            for (InventoryItem item : batch) {
+                LedgerEntry entry = entries.get(item.getSku());
+                if (entry != null) {
+                    entry.lock.lock();
+                    try {
+                        markDirty(entry);
+                    } finally {
+                        entry.lock.unlock();
+                    }
+                }
+            }
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void writeItem(InventoryItem item) {
+        try {
+            optimisticRetry.execute(item.getSku(), () -> {
+                InventoryItem stored = inventoryRepository.findBySku(item.getSku()).orElse(null);
+                adoptVersions(List.of(inventoryRepository.save(rebase(item, stored))));
+            });
+            flushedItemsCounter.increment();
+        } catch (Exception e) {
+            flushFailuresCounter.increment();
+            log.error("Inventory Ledger: Failed to flush SKU {}, will retry on next flush", item.getSku(), e);
+            LedgerEntry entry = entries.get(item.getSku());
+            if (entry != null) {
+                entry.lock.lock();
+                try {
+                    markDirty(entry);
+                } finally {
+                    entry.lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Three-way merge after a version conflict: apply the stored row's change since the ledger's base
+     * (the state last read or written) to the ledger entry, and return a copy to write on the stored version.
+     * Quantities combine both sides' changes; descriptive fields keep the ledger's values.
+     */
+    private InventoryItem rebase(InventoryItem written, InventoryItem stored) {
+        if (stored == null) {
+            return written;
+        }
+        LedgerEntry entry = entries.get(written.getSku());
+        if (entry == null) {
+            written.setVersion(stored.getVersion());
+            return written;
+        }
+        entry.lock.lock();
+        changeGate.readLock().lock();
+        try {
+            InventoryItem item = entry.item;
+            for (StockCut cut : openCuts) {
+                cut.saveRecorded(entry);
+            }
+            int storedQuantity = Objects.requireNonNullElse(stored.getQuantity(), 0);
+            int storedReserved = Objects.requireNonNullElse(stored.getReservedQuantity(), 0);
+            item.setQuantity(item.getQuantity() + storedQuantity - entry.baseQuantity);
+            item.setReservedQuantity(item.getReservedQuantity() + storedReserved - entry.baseReserved);
+            item.setVersion(stored.getVersion());
+            entry.recordedQuantity = item.getQuantity();
+            entry.recordedReserved = item.getReservedQuantity();
+            entry.baseQuantity = storedQuantity;
+            entry.baseReserved = storedReserved;
+            log.warn("Inventory Ledger: Merged external change to SKU {} (quantity {}, reserved {})",
+                    item.getSku(), item.getQuantity(), item.getReservedQuantity());
+            return copyOf(item);
+        } finally {
+            changeGate.readLock().unlock();
+            entry.lock.unlock();
+        }
+    }
+
+    /**
+     * Carry the row versions assigned by the database back into the ledger; the written values become the merge base
+     */
+    private void adoptVersions(List<InventoryItem> saved) {
+        for (InventoryItem item : saved) {
+            LedgerEntry entry = entries.get(item.getSku());
+            if (entry != null) {
+                entry.lock.lock();
+                try {
+                    entry.item.setVersion(item.getVersion());
+                    entry.baseQuantity = item.getQuantity();
+                    entry.baseReserved = item.getReservedQuantity();
+                } finally {
+                    entry.lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Flush remaining changes before the application context shuts down
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("Inventory Ledger: Flushing {} dirty items before shutdown", dirtySkus.size());
+        flush();
+    }
+
+    /**
+     * Evict clean entries idle longer than the TTL, then the least recently used ones above the size bound.
+     * Runs under the flush lock, so an entry whose write is in flight is never dropped.
+     */
+    @Scheduled(fixedDelayString = "${inventory.ledger.cache.eviction-interval-ms:1000}")
+    public void evict() {
+        long now = System.nanoTime();
+        long ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        synchronized (flushLock) {
+            for (LedgerEntry entry : entries.values()) {
+                if (now - entry.lastAccessNanos > ttlNanos && tryEvict(entry)) {
+                    ttlEvictionCounter.increment();
+                }
+            }
+
+            int excess = entries.size() - maxEntries;
+            if (excess <= 0) {
+                return;
+            }
+            List<LedgerEntry> leastRecentFirst = new ArrayList<>(entries.values());
+            leastRecentFirst.sort(Comparator.comparingLong(entry -> entry.lastAccessNanos));
+            for (LedgerEntry entry : leastRecentFirst) {
+                if (excess <= 0) {
+                    break;
+                }
+                if (tryEvict(entry)) {
+                    sizeEvictionCounter.increment();
+                    excess--;
+                }
+            }
+        }
+    }
+
+    /**
+     * Drop an entry if it is clean and not in use (caller holds the flush lock)
+     */
+    private boolean tryEvict(LedgerEntry entry) {
+        if (!entry.lock.tryLock()) {
+            return false;
+        }
+        try {
+            String sku = entry.item.getSku();
+            if (entry.dirtySinceNanos != 0 || dirtySkus.contains(sku)) {
+                return false;
+            }
+            for (StockCut cut : openCuts) {
+                cut.saveRecorded(entry); // A table row read before the flush would otherwise be stale for the cut
+            }
+            entry.evicted = true;
+            entries.remove(sku, entry);
+            return true;
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    private double oldestPendingChangeSeconds() {
+        long now = System.nanoTime();
+        long oldest = 0;
+        for (String sku : dirtySkus) {
+            LedgerEntry entry = entries.get(sku);
+            long since = entry != null ? entry.dirtySinceNanos : 0;
+            if (since != 0 && (oldest == 0 || since < oldest)) {
+                oldest = since;
+            }
+        }
+        return oldest == 0 ? 0.0 : (now - oldest) / 1_000_000_000.0;
+    }
+
+    static InventoryItem copyOf(InventoryItem item) {
+        InventoryItem copy = new InventoryItem();
+        copy.setId(item.getId());
+        copy.setSku(item.getSku());
+        copy.setName(item.getName());
+        copy.setQuantity(item.getQuantity());
+        copy.setReservedQuantity(item.getReservedQuantity());
+        copy.setTemperatureZone(item.getTemperatureZone());
+        copy.setLowStockThreshold(item.getLowStockThreshold());
+        copy.setVersion(item.getVersion());
+        return copy;
+    }
+
+    /**
+     * Quantities of every SKU as of the instant the cut was opened. Only SKUs changed or evicted since then
+     * are held (quantity and reservation packed in one long); all others are read from the ledger or the table.
+     */
+    public final class StockCut implements AutoCloseable {
+
+        private final Map<String, Long> saved = new ConcurrentHashMap<>();
+
+        /**
+         * Set the quantity and reservation of a table row to their values at the cut.
+         * The row must come from a read started after the cut was opened.
+         */
+        public void apply(InventoryItem row) {
+            String sku = row.getSku();
+            LedgerEntry entry = entries.get(sku);
+            if (entry != null) {
+                entry.lock.lock();
+                try {
+                    Long state = saved.get(sku);
+                    if (state != null) {
+                        setPacked(row, state);
+                        return;
+                    }
+                    if (!entry.evicted) {
+                        row.setQuantity(entry.recordedQuantity);
+                        row.setReservedQuantity(entry.recordedReserved);
+                        return;
+                    }
+                } finally {
+                    entry.lock.unlock();
+                }
+            }
+            // Not in memory: unchanged since the cut unless it was changed and evicted in between
+            Long state = saved.get(sku);
+            if (state != null) {
+                setPacked(row, state);
+            }
+        }
+
+        /**
+         * Number of SKUs whose state at the cut is held in memory
+         */
+        public int savedCount() {
+            return saved.size();
+        }
+
+        @Override
+        public void close() {
+            openCuts.remove(this);
+        }
+
+        // Caller holds the entry lock; keeps the first state seen after the cut was opened
+        private void saveRecorded(LedgerEntry entry) {
+            saved.putIfAbsent(entry.item.getSku(),
+                    ((long) entry.recordedQuantity << 32) | (entry.recordedReserved & 0xFFFFFFFFL));
+        }
+
+        private void setPacked(InventoryItem row, long state) {
+            row.setQuantity((int) (state >> 32));
+            row.setReservedQuantity((int) state);
+        }
+    }
+
+    /**
+     * In-memory row guarded by a per-SKU lock (evicted entries must not be used; look the SKU up again).
+     * The item is a detached copy of the row it was loaded from.
+     * The base quantities are the row as last read from or written to the database, used to merge conflicts;
+     * the recorded quantities are the state as of the last recorded change, saved into open cuts before the next one.
+     */
+    static final class LedgerEntry {
+        final ReentrantLock lock = new ReentrantLock();
+        final InventoryItem item;
+        int baseQuantity;
+        int baseReserved;
+        int recordedQuantity;
+        int recordedReserved;
+        volatile long dirtySinceNanos;
+        volatile long lastAccessNanos = System.nanoTime();
+        volatile boolean evicted;
+
+        LedgerEntry(InventoryItem item) {
+            // Never the repository's instance: loaded inside a caller's transaction it is a managed entity,
+            // and Hibernate would write changes to it back at that commit, bypassing the write-behind
+            this.item = copyOf(item);
+            this.baseQuantity = Objects.requireNonNullElse(item.getQuantity(), 0);
+            this.baseReserved = Objects.requireNonNullElse(item.getReservedQuantity(), 0);
+            this.recordedQuantity = baseQuantity;
+            this.recordedReserved = baseReserved;
+        }
+    }
+}
@@ -1,50 +1,137 @@
 package com.inventory.service;
 
+import com.inventory.message.InventoryCommandMessage;
 import com.inventory.message.InventoryUpdateMessage;
 import com.inventory.model.InventoryItem;
-import com.inventory.repository.InventoryItemRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.support.RetrySynchronizationManager;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class InventoryManager {
 
-    private final InventoryItemRepository inventoryRepository;
+    private final InventoryLedger inventoryLedger;
+    private final ReplenishmentPlanner replenishmentPlanner;
+    private final OrderFlowTracker orderFlowTracker;
 
-    @Value("${spring.rabbitmq.exchange.name:symbotic.simulation}")
-    private String exchangeName;
+    @Value("${inventory.inventory.replenishment-quantity:500}")
+    private int replenishmentQuantity;
 
-    @Value("${spring.rabbitmq.topic.prefix:sim}")
-    private String topicPrefix;
+    @Value("${spring.rabbitmq.listener.simple.retry.enabled:false}")
+    private boolean listenerRetryEnabled;
 
-    @Value("${inventory.inventory.initial-stock:1000}")
-    private int initialStock;
+    @Value("${spring.rabbitmq.listener.simple.retry.max-attempts:3}")
+    private int listenerMaxAttempts;
 
-    @Value("${inventory.inventory.low-stock-threshold:100}")
-    private int lowStockThreshold;
+    /**
+     * Listen to inventory commands (all lines of one order for this queue)
+     */
+    @RabbitListener(queues = "${spring.rabbitmq.topic.prefix:sim}.inventory.update",
+            concurrency = "${inventory.inventory.listener-concurrency:1}",
+            autoStartup = "#{'${inventory.messaging.transport:rabbit}' == 'rabbit' && ${inventory.messaging.inventory-partitions:1} <= 1"
+                    + " && !${inventory.inventory.batch.enabled:false}}")
+    public void handleInventoryCommand(InventoryCommandMessage command) {
+        log.debug("Inventory Manager: Received inventory command for order {} with {} lines", 
+            command.getOrderId(), command.getLines().size());
 
-    @Value("${inventory.inventory.replenishment-quantity:500}")
-    private int replenishmentQuantity;
+        try {
+            applyLines(command.getLines());
+        } catch (RuntimeException e) {
+            settleUnlessRetried(1);
+            throw e;
+        }
+        orderFlowTracker.commandsSettled(1);
+    }
 
     /**
-     * Listen to inventory update messages
+     * Listen to inventory commands in batches, coalescing lines per SKU across commands
      */
-    @RabbitListener(queues = "${spring.rabbitmq.topic.prefix:sim}.inventory.update")
-    @Transactional
-    public void handleInventoryUpdate(InventoryUpdateMessage message) {
-        log.info("Inventory Manager: Received inventory update for SKU {}: {}", 
-            message.getSku(), message.getOperation());
+    @RabbitListener(queues = "${spring.rabbitmq.topic.prefix:sim}.inventory.update",
+            containerFactory = "inventoryBatchListenerContainerFactory",
+            autoStartup = "#{'${inventory.messaging.transport:rabbit}' == 'rabbit' && ${inventory.messaging.inventory-partitions:1} <= 1"
+                    + " && ${inventory.inventory.batch.enabled:false}}")
+    public void handleInventoryCommandBatch(List<InventoryCommandMessage> commands) {
+        List<InventoryUpdateMessage> lines = new ArrayList<>();
+        for (InventoryCommandMessage command : commands) {
+            lines.addAll(command.getLines());
+        }
+        int skus;
+        try {
+            skus = applyLines(lines);
+        } catch (RuntimeException e) {
+            settleUnlessRetried(commands.size());
+            throw e;
+        }
+        orderFlowTracker.commandsSettled(commands.size());
 
-        InventoryItem item = getOrCreateInventoryItem(message.getSku());
+        log.info("Inventory Manager: Applied batch of {} inventory commands ({} lines) across {} SKUs", 
+            commands.size(), lines.size(), skus);
+    }
 
+    /**
+     * A failed delivery is settled only on its last attempt: the listener retry advice re-invokes the handler
+     * for the earlier ones, and settling each of them would drive the drain count below the commands issued
+     */
+    private void settleUnlessRetried(int commands) {
+        RetryContext retry = RetrySynchronizationManager.getContext();
+        if (!listenerRetryEnabled || retry == null || retry.getRetryCount() + 1 >= listenerMaxAttempts) {
+            orderFlowTracker.commandsSettled(commands);
+        }
+    }
+
+    /**
+     * Group lines by SKU (keeping arrival order within each SKU) and fold them all in one all-or-nothing ledger
+     * update, so a command or batch that fails partway leaves no SKU changed and can be redelivered whole.
+     * Lines for SKUs not in the catalogue are logged and skipped; no row is created for them.
+     */
+    private int applyLines(List<InventoryUpdateMessage> lines) {
+        Map<String, List<InventoryUpdateMessage>> updatesBySku = new LinkedHashMap<>();
+        for (InventoryUpdateMessage line : lines) {
+            updatesBySku.computeIfAbsent(line.getSku(), sku -> new ArrayList<>()).add(line);
+        }
+
+        Map<String, Consumer<InventoryItem>> mutations = new HashMap<>();
+        updatesBySku.forEach((sku, updates) -> mutations.put(sku, item -> {
+            for (InventoryUpdateMessage update : updates) {
+                applyOperation(item, update);
+            }
+        }));
+        // Not wrapped in OptimisticRetryExecutor: the update runs under the ledger's SKU locks and cannot hit a
+        // version conflict; the write-back of these rows retries conflicts when the ledger flushes them
+        List<InventoryItem> updated = inventoryLedger.updateExistingAll(mutations);
+
+        if (updated.size() < updatesBySku.size()) {
+            for (InventoryItem item : updated) {
+                updatesBySku.remove(item.getSku());
+            }
+            updatesBySku.forEach((sku, updates) -> log.warn("Inventory Manager: Skipped {} lines for unknown SKU {} (order {})",
+                updates.size(), sku, updates.get(0).getOrderId()));
+        }
+
+        // Flag for replenishment (planned and delivered on the simulation clock)
+        for (InventoryItem item : updated) {
+            checkAndReplenish(item);
+        }
+        return updated.size();
+    }
+
+    /**
+     * Apply a single inventory operation in memory
+     */
+    private void applyOperation(InventoryItem item, InventoryUpdateMessage message) {
         switch (message.getOperation()) {
             case "RESERVE":
                 reserveInventory(item, message.getReservedQuantityChange());
@@ -61,30 +148,6 @@ public class InventoryManager {
             default:
                 log.warn("Inventory Manager: Unknown operation {}", message.getOperation());
         }
-
-        // Check if replenishment is needed
-        checkAndReplenish(item);
-    }
-
-    /**
-     * Get or create inventory item
-     */
-    private InventoryItem getOrCreateInventoryItem(String sku) {
-        Optional<InventoryItem> optional = inventoryRepository.findBySku(sku);
-        if (optional.isPresent()) {
-            return optional.get();
-        }
-
-        // Create new inventory item
-        InventoryItem item = new InventoryItem();
-        item.setSku(sku);
-        item.setName("Item " + sku);
-        item.setQuantity(initialStock);
-        item.setReservedQuantity(0);
-        item.setTemperatureZone("AMBIENT");
-        item.setLowStockThreshold(lowStockThreshold);
-        
-        return inventoryRepository.save(item);
     }
 
     /**
@@ -96,8 +159,7 @@ public class InventoryManager {
         int available = item.getAvailableQuantity();
         if (available >= quantity) {
             item.setReservedQuantity(item.getReservedQuantity() + quantity);
-            inventoryRepository.save(item);
-            log.info("Inventory Manager: Reserved {} units of SKU {}. Available: {}", 
+            log.debug("Inventory Manager: Reserved {} units of SKU {}. Available: {}", 
                 quantity, item.getSku(), item.getAvailableQuantity());
         } else {
             log.warn("Inventory Manager: Insufficient stock for SKU {}. Requested: {}, Available: {}", 
@@ -114,9 +176,8 @@ public class InventoryManager {
         int currentReserved = item.getReservedQuantity();
         int releaseAmount = Math.min(quantity, currentReserved);
         item.setReservedQuantity(currentReserved - releaseAmount);
-        inventoryRepository.save(item);
         
-        log.info("Inventory Manager: Released {} units of SKU {}. Reserved: {}", 
+        log.debug("Inventory Manager: Released {} units of SKU {}. Reserved: {}", 
             releaseAmount, item.getSku(), item.getReservedQuantity());
     }
 
@@ -132,9 +193,8 @@ public class InventoryManager {
 
         item.setReservedQuantity(currentReserved - deductFromReserved);
         item.setQuantity(item.getQuantity() - deductFromStock);
-        inventoryRepository.save(item);
         
-        log.info("Inventory Manager: Deducted {} units of SKU {}. Stock: {}, Reserved: {}", 
+        log.debug("Inventory Manager: Deducted {} units of SKU {}. Stock: {}, Reserved: {}", 
             quantity, item.getSku(), item.getQuantity(), item.getReservedQuantity());
     }
 
@@ -147,68 +207,58 @@ public class InventoryManager {
         }
 
         item.setQuantity(item.getQuantity() + quantity);
-        inventoryRepository.save(item);
         
-        log.info("Inventory Manager: Replenished {} units of SKU {}. Total stock: {}", 
+        log.debug("Inventory Manager: Replenished {} units of SKU {}. Total stock: {}", 
             quantity, item.getSku(), item.getQuantity());
     }
 
     /**
-     * Check and auto-replenish
+     * Hand low-stock SKUs to the replenishment planner
      */
     private void checkAndReplenish(InventoryItem item) {
         if (item.getQuantity() <= item.getLowStockThreshold()) {
-            log.warn("Inventory Manager: Low stock detected for SKU {}. Current: {}, Threshold: {}", 
-                item.getSku(), item.getQuantity(), item.getLowStockThreshold());
-            
-            // Auto-replenish
-            replenishInventory(item, replenishmentQuantity);
+            replenishmentPlanner.lowStock(item);
         }
     }
 
     /**
-     * Query inventory (auto-create if not exists)
+     * Query inventory (null if the SKU does not exist; never creates it)
      */
     public InventoryItem getInventory(String sku) {
-        return getOrCreateInventoryItem(sku);
+        return inventoryLedger.find(sku).orElse(null);
     }
 
     /**
-     * Initialize inventory (for testing and API)
+     * Initialize inventory (for testing and API; creates the SKU if missing, unlike the command handlers)
      */
     public void initializeInventory(String sku, int quantity, String temperatureZone) {
-        InventoryItem item = getOrCreateInventoryItem(sku);
-        item.setQuantity(quantity);
-        item.setTemperatureZone(temperatureZone);
-        inventoryRepository.save(item);
+        inventoryLedger.update(sku, item -> {
+            item.setQuantity(quantity);
+            item.setTemperatureZone(temperatureZone);
+        });
+    }
+
+    /**
+     * Restore the on-hand quantity recovered from the inventory event log (creates SKUs logged in an earlier run);
+     * reservations are released, since the orders holding them did not survive the restart
+     */
+    public void restoreInventory(String sku, int quantity) {
+        inventoryLedger.update(sku, item -> {
+            item.setQuantity(quantity);
+            item.setReservedQuantity(0);
+        });
     }
 
     /**
      * Initialize inventory from CSV (supports full fields)
      */
     public void initializeInventoryFromCSV(String sku, String name, int quantity, String temperatureZone, int lowStockThreshold) {
-        Optional<InventoryItem> optional = inventoryRepository.findBySku(sku);
-        InventoryItem item;
-        
-        if (optional.isPresent()) {
-            item = optional.get();
-            // Update existing inventory
+        inventoryLedger.update(sku, item -> {
             item.setName(name);
             item.setQuantity(quantity);
             item.setTemperatureZone(temperatureZone);
             item.setLowStockThreshold(lowStockThreshold);
-        } else {
-            // Create new inventory item
-            item = new InventoryItem();
-            item.setSku(sku);
-            item.setName(name);
-            item.setQuantity(quantity);
-            item.setReservedQuantity(0);
-            item.setTemperatureZone(temperatureZone);
-            item.setLowStockThreshold(lowStockThreshold);
-        }
-        
-        inventoryRepository.save(item);
+        });
         log.debug("Initialized inventory for SKU {}: quantity={}, zone={}", sku, quantity, temperatureZone);
     }
 }
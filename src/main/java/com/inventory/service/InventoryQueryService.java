@@ -0,0 +1,151 @@
+package com.inventory.service;
+
+import com.inventory.model.InventoryItem;
+import com.inventory.repository.InventoryItemRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Bulk inventory reads: multi-SKU and per-zone lookups through the ledger, and a point-in-time CSV snapshot
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InventoryQueryService {
+
+    // Same columns as the inventory import CSV, plus live reservation and version
+    private static final String SNAPSHOT_HEADER =
+            "SKU,NAME,QUANTITY,RESERVED_QUANTITY,TEMPERATURE_ZONE,LOW_STOCK_THRESHOLD,VERSION\n";
+
+    private static final String SNAPSHOT_SQL =
+            "SELECT sku, name, quantity, reserved_quantity, temperature_zone, low_stock_threshold, version "
+                    + "FROM inventory_items ORDER BY sku";
+
+    private final InventoryLedger inventoryLedger;
+    private final InventoryItemRepository inventoryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${inventory.inventory-query.snapshot-fetch-size:1000}")
+    private int snapshotFetchSize;
+
+    /**
+     * Get several SKUs in one call (unknown SKUs are left out)
+     */
+    public List<InventoryItem> findBySkus(Collection<String> skus) {
+        return inventoryLedger.findAll(skus);
+    }
+
+    /**
+     * Get every SKU of a temperature zone without flushing the ledger: stored rows in the zone plus SKUs moved
+     * into it in memory, filtered on ledger state so SKUs moved out of it in memory are left out
+     */
+    public List<InventoryItem> findByZone(String temperatureZone) {
+        // Scan the ledger before the table: an entry is only evicted once written, so none is missed in between
+        Set<String> skus = new TreeSet<>(inventoryLedger.cachedSkusInZone(temperatureZone));
+        skus.addAll(inventoryRepository.findSkusByTemperatureZone(temperatureZone));
+        return inventoryLedger.findAll(skus).stream()
+                .filter(item -> temperatureZone.equals(item.getTemperatureZone()))
+                .toList();
+    }
+
+    /**
+     * Stream the whole catalogue as a point-in-time CSV without flushing the ledger or locking it.
+     * A ledger cut is opened first; rows are then streamed from the table with the configured fetch size and
+     * their quantities and reservations replaced by the values at the cut, so no row is cached or collected.
+     * SKUs created while the export runs are written with their initial stock.
+     */
+    public long exportSnapshotCsv(OutputStream out) {
+        TransactionTemplate snapshot = new TransactionTemplate(transactionManager);
+        snapshot.setReadOnly(true);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long[] rows = new long[1];
+        try (InventoryLedger.StockCut cut = inventoryLedger.openCut()) {
+            snapshot.executeWithoutResult(status -> {
+                try {
+                    writer.write(SNAPSHOT_HEADER);
+                    jdbcTemplate.query(connection -> {
+                        PreparedStatement statement = connection.prepareStatement(SNAPSHOT_SQL);
+                        statement.setFetchSize(snapshotFetchSize);
+                        return statement;
+                    }, (ResultSet rs) -> {
+                        InventoryItem item = readRow(rs);
+                        cut.apply(item);
+                        writeRow(writer, item);
+                        rows[0]++;
+                    });
+                    writer.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to write inventory snapshot", e);
+                }
+            });
+            log.info("Exported inventory snapshot of {} SKUs ({} changed during the export)", rows[0], cut.savedCount());
+        }
+        return rows[0];
+    }
+
+    private static InventoryItem readRow(ResultSet rs) throws SQLException {
+        InventoryItem item = new InventoryItem();
+        item.setSku(rs.getString(1));
+        item.setName(rs.getString(2));
+        item.setQuantity(rs.getInt(3));
+        item.setReservedQuantity(rs.getInt(4));
+        item.setTemperatureZone(rs.getString(5));
+        item.setLowStockThreshold(rs.getInt(6));
+        item.setVersion(rs.getLong(7));
+        return item;
+    }
+
+    private void writeRow(Writer writer, InventoryItem item) {
+        try {
+            writer.write(csv(item.getSku()));
+            writer.write(',');
+            writer.write(csv(item.getName()));
+            writer.write(',');
+            writer.write(Integer.toString(Objects.requireNonNullElse(item.getQuantity(), 0)));
+            writer.write(',');
+            writer.write(Integer.toString(Objects.requireNonNullElse(item.getReservedQuantity(), 0)));
+            writer.write(',');
+            writer.write(csv(item.getTemperatureZone()));
+            writer.write(',');
+            writer.write(Integer.toString(Objects.requireNonNullElse(item.getLowStockThreshold(), 0)));
+            writer.write(',');
+            writer.write(Long.toString(Objects.requireNonNullElse(item.getVersion(), 0L)));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write inventory snapshot", e);
+        }
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
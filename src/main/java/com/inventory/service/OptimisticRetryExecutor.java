@@ -0,0 +1,126 @@
+package com.inventory.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Bounded retry with jittered exponential backoff for inventory row conflicts.
+ * Conflicts are optimistic lock failures (stale @Version) and concurrent inserts of the same SKU.
+ * Inventory commands change rows in the {@link InventoryLedger} under per-SKU locks, which cannot conflict;
+ * the read-modify-write that can is the ledger's write-back of a row, so that is what runs through here.
+ * The totals are untagged; the per-SKU breakdown tags the first sku-tag-limit SKUs to conflict and
+ * counts the rest under sku="other", so the series stay bounded.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OptimisticRetryExecutor {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${inventory.inventory.retry.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${inventory.inventory.retry.initial-backoff-ms:5}")
+    private long initialBackoffMs;
+
+    @Value("${inventory.inventory.retry.max-backoff-ms:200}")
+    private long maxBackoffMs;
+
+    @Value("${inventory.inventory.retry.sku-tag-limit:50}")
+    private int skuTagLimit;
+
+    private Counter conflictCounter;
+    private Counter retryCounter;
+    private Counter exhaustedCounter;
+    private final Map<String, SkuCounters> skuCounters = new ConcurrentHashMap<>();
+    private SkuCounters otherSkuCounters;
+
+    @PostConstruct
+    public void registerMetrics() {
+        conflictCounter = meterRegistry.counter("inventory_update_conflicts_total");
+        retryCounter = meterRegistry.counter("inventory_update_retries_total");
+        exhaustedCounter = meterRegistry.counter("inventory_update_retries_exhausted_total");
+        otherSkuCounters = new SkuCounters("other");
+    }
+
+    public void execute(String sku, Runnable action) {
+        execute(sku, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public <T> T execute(String sku, Supplier<T> action) {
+        long backoffMs = initialBackoffMs;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                SkuCounters perSku = countersFor(sku);
+                conflictCounter.increment();
+                perSku.conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    exhaustedCounter.increment();
+                    log.error("Inventory Ledger: Giving up on SKU {} after {} conflicting attempts", sku, attempt);
+                    throw e;
+                }
+
+                retryCounter.increment();
+                perSku.retries.increment();
+                log.warn("Inventory Ledger: Conflict on SKU {} (attempt {}), retrying: {}", sku, attempt, e.getMessage());
+                sleep(ThreadLocalRandom.current().nextLong(backoffMs / 2, backoffMs + 1));
+                backoffMs = Math.min(maxBackoffMs, backoffMs * 2);
+            }
+        }
+    }
+
+    private SkuCounters countersFor(String sku) {
+        SkuCounters counters = skuCounters.get(sku);
+        if (counters != null) {
+            return counters;
+        }
+        synchronized (skuCounters) {
+            counters = skuCounters.get(sku);
+            if (counters == null) {
+                if (skuCounters.size() >= skuTagLimit) {
+                    return otherSkuCounters;
+                }
+                counters = new SkuCounters(sku);
+                skuCounters.put(sku, counters);
+            }
+            return counters;
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backing off", e);
+        }
+    }
+
+    private final class SkuCounters {
+        final Counter conflicts;
+        final Counter retries;
+
+        SkuCounters(String sku) {
+            conflicts = meterRegistry.counter("inventory_update_conflicts_by_sku_total", "sku", sku);
+            retries = meterRegistry.counter("inventory_update_retries_by_sku_total", "sku", sku);
+        }
+    }
+}
@@ -1,18 +1,22 @@
 package com.inventory.service;
 
+import com.inventory.message.OrderReceivedMessage;
 import com.inventory.model.OrderCSVRecord;
 import com.opencsv.bean.CsvToBean;
 import com.opencsv.bean.CsvToBeanBuilder;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Function;
 
 @Slf4j
 @Service
@@ -23,21 +27,10 @@ public class OrderCSVReader {
      */
     public List<OrderCSVRecord> readOrdersFromCSV(String csvFilePath) {
         try {
-            Resource resource = new ClassPathResource(csvFilePath);
-            
-            if (!resource.exists()) {
-                log.error("CSV file not found: {}", csvFilePath);
-                throw new IOException("CSV file not found: " + csvFilePath);
-            }
+            Resource resource = resolve(csvFilePath);
 
             try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
-                CsvToBean<OrderCSVRecord> csvToBean = new CsvToBeanBuilder<OrderCSVRecord>(reader)
-                        .withType(OrderCSVRecord.class)
-                        .withIgnoreLeadingWhiteSpace(true)
-                        .withSkipLines(0) // Skip header row
-                        .build();
-
-                List<OrderCSVRecord> orders = csvToBean.parse();
+                List<OrderCSVRecord> orders = buildCsvToBean(reader).parse();
                 log.info("Successfully loaded {} orders from CSV file: {}", orders.size(), csvFilePath);
                 return orders;
             }
@@ -46,4 +39,44 @@ public class OrderCSVReader {
             throw new RuntimeException("Failed to read CSV file: " + csvFilePath, e);
         }
     }
+
+    /**
+     * Open CSV file for incremental reading (rows of one order must be consecutive)
+     */
+    public OrderStreamReader openOrderStream(String csvFilePath,
+                                             Function<List<OrderCSVRecord>, OrderReceivedMessage> converter) {
+        try {
+            Resource resource = resolve(csvFilePath);
+            Reader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8));
+            log.info("Streaming orders from CSV file: {}", csvFilePath);
+            return new OrderStreamReader(reader, buildCsvToBean(reader).iterator(), converter);
+        } catch (IOException e) {
+            log.error("Error opening CSV file: {}", csvFilePath, e);
+            throw new RuntimeException("Failed to open CSV file: " + csvFilePath, e);
+        }
+    }
+
+    /**
+     * Resolve CSV path: classpath resource if it exists, otherwise filesystem path
+     */
+    private Resource resolve(String csvFilePath) throws IOException {
+        Resource resource = new ClassPathResource(csvFilePath);
+        if (!resource.exists()) {
+            resource = new FileSystemResource(csvFilePath);
+        }
+
+        if (!resource.exists()) {
+            log.error("CSV file not found: {}", csvFilePath);
+            throw new IOException("CSV file not found: " + csvFilePath);
+        }
+        return resource;
+    }
+
+    private CsvToBean<OrderCSVRecord> buildCsvToBean(Reader reader) {
+        return new CsvToBeanBuilder<OrderCSVRecord>(reader)
+                .withType(OrderCSVRecord.class)
+                .withIgnoreLeadingWhiteSpace(true)
+                .withSkipLines(0) // Skip header row
+                .build();
+    }
 }
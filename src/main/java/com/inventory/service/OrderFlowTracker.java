@@ -0,0 +1,87 @@
+package com.inventory.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Counts orders published to the pipeline and orders OrderManager has finished with,
+ * and the inventory commands issued for those orders until InventoryManager has applied them.
+ * Settling the last one wakes threads waiting in {@link #awaitDrained}.
+ */
+@Component
+public class OrderFlowTracker {
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong settled = new AtomicLong();
+    private final AtomicLong commandsIssued = new AtomicLong();
+    private final AtomicLong commandsSettled = new AtomicLong();
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final Condition drained = drainLock.newCondition();
+
+    public void orderPublished() {
+        published.incrementAndGet();
+    }
+
+    public void orderSettled() {
+        settled.incrementAndGet();
+        signalIfDrained();
+    }
+
+    /**
+     * Count inventory commands before the order that issues them settles, so the flow never looks drained in between
+     */
+    public void commandsIssued(int count) {
+        commandsIssued.addAndGet(count);
+    }
+
+    /**
+     * Count inventory commands applied, or dropped before they were published
+     */
+    public void commandsSettled(int count) {
+        commandsSettled.addAndGet(count);
+        signalIfDrained();
+    }
+
+    /**
+     * Orders published but not yet completed, failed or errored, plus inventory commands not yet applied
+     */
+    public long inFlight() {
+        return published.get() - settled.get() + commandsIssued.get() - commandsSettled.get();
+    }
+
+    /**
+     * Wait until nothing is in flight, at most the timeout; returns false on timeout
+     */
+    public boolean awaitDrained(long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        drainLock.lock();
+        try {
+            while (inFlight() > 0) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = drained.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    // Counters are updated before the lock is taken, so a waiter checking under the lock cannot miss the signal
+    private void signalIfDrained() {
+        if (inFlight() != 0) {
+            return;
+        }
+        drainLock.lock();
+        try {
+            drained.signalAll();
+        } finally {
+            drainLock.unlock();
+        }
+    }
+}
@@ -1,24 +1,22 @@
 package com.inventory.service;
 
 import com.inventory.message.OrderReceivedMessage;
+import com.inventory.messaging.SimulationMessageBus;
 import com.inventory.model.Order;
 import com.inventory.model.OrderCSVRecord;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -26,12 +24,10 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class OrderInjector {
 
-    private final RabbitTemplate rabbitTemplate;
+    private final SimulationMessageBus messageBus;
     private final OrderCSVReader csvReader;
     private final SimulationClock simulationClock;
-
-    @Value("${spring.rabbitmq.exchange.name:symbotic.simulation}")
-    private String exchangeName;
+    private final OrderFlowTracker orderFlowTracker;
 
     @Value("${spring.rabbitmq.topic.prefix:sim}")
     private String topicPrefix;
@@ -42,19 +38,89 @@ public class OrderInjector {
     @Value("${inventory.order-injector.use-csv:true}")
     private boolean useCsv;
 
-    private final Queue<OrderReceivedMessage> orderQueue = new ConcurrentLinkedQueue<>();
+    @Value("${inventory.order-injector.streaming:false}")
+    private boolean streaming;
+
+    @Value("${inventory.order-injector.look-ahead-minutes:30}")
+    private long lookAheadMinutes;
+
+    private final OrderReleaseQueue orderQueue = new OrderReleaseQueue();
     private final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private OrderStreamReader orderStream;
+    private OrderReceivedMessage streamedAheadOrder;
 
     /**
      * Initialize: Load orders from CSV file (only load orders within simulation time range)
      */
     @PostConstruct
     public void initialize() {
-        if (useCsv) {
+        if (useCsv && streaming) {
+            openOrderStream();
+        } else if (useCsv) {
             loadOrdersFromCSV();
         }
     }
 
+    /**
+     * Open CSV file for streaming: orders are read just ahead of simulation time instead of all at once
+     */
+    private void openOrderStream() {
+        try {
+            orderStream = csvReader.openOrderStream(csvFilePath, this::convertToOrderMessage);
+            refillFromStream(simulationClock.getCurrentTime());
+        } catch (Exception e) {
+            log.error("Failed to open order stream from CSV file: {}", csvFilePath, e);
+        }
+    }
+
+    /**
+     * Read streamed orders into the release queue up to the look-ahead horizon
+     */
+    private synchronized void refillFromStream(LocalDateTime currentSimTime) {
+        if (orderStream == null) {
+            return;
+        }
+
+        LocalDateTime horizon = currentSimTime.plusMinutes(lookAheadMinutes);
+        try {
+            while (true) {
+                OrderReceivedMessage order = streamedAheadOrder != null ? streamedAheadOrder : orderStream.next();
+                streamedAheadOrder = null;
+                if (order == null) {
+                    log.info("Order stream exhausted: {}", csvFilePath);
+                    closeOrderStream();
+                    return;
+                }
+                if (order.getOrderPlacedTime().isAfter(horizon)) {
+                    streamedAheadOrder = order;
+                    return;
+                }
+                if (simulationClock.isTimeInRange(order.getOrderPlacedTime())) {
+                    orderQueue.add(order);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to read order stream from CSV file: {}", csvFilePath, e);
+            closeOrderStream();
+        }
+    }
+
+    /**
+     * Close the order stream (also on shutdown)
+     */
+    @PreDestroy
+    public synchronized void closeOrderStream() {
+        if (orderStream == null) {
+            return;
+        }
+        try {
+            orderStream.close();
+        } catch (IOException e) {
+            log.warn("Failed to close order stream: {}", csvFilePath, e);
+        }
+        orderStream = null;
+    }
+
     /**
      * Load orders from CSV file (only load orders within simulation time range)
      */
@@ -71,10 +137,9 @@ public class OrderInjector {
             List<OrderReceivedMessage> orders = ordersByOrderId.values().stream()
                     .map(this::convertToOrderMessage)
                     .filter(order -> simulationClock.isTimeInRange(order.getOrderPlacedTime()))
-                    .sorted(Comparator.comparing(OrderReceivedMessage::getOrderPlacedTime))
                     .collect(Collectors.toList());
             
-            orderQueue.addAll(orders);
+            orders.forEach(orderQueue::add);
             log.info("Loaded {} orders from CSV file (within simulation time range)", orders.size());
         } catch (Exception e) {
             log.error("Failed to load orders from CSV file: {}", csvFilePath, e);
@@ -124,61 +189,68 @@ public class OrderInjector {
      */
     @Scheduled(fixedDelayString = "${inventory.simulation.tick-interval-ms:1000}")
     public void injectOrders() {
-        if (!useCsv || !simulationClock.isRunning()) {
+        if (!simulationClock.isRunning() || simulationClock.isEventMode()
+                || (orderQueue.isEmpty() && orderStream == null)) {
             return;
         }
-        injectOrdersFromCSV();
+        releaseDueOrders();
     }
 
     /**
-     * Inject orders from CSV queue (using simulation clock time)
+     * Inject due orders from the release queue (using simulation clock time)
      */
-    private void injectOrdersFromCSV() {
+    public void releaseDueOrders() {
         LocalDateTime currentSimTime = simulationClock.getCurrentTime();
+        refillFromStream(currentSimTime);
         
-        // Send all due orders
-        List<OrderReceivedMessage> ordersToSend = new ArrayList<>();
-        List<OrderReceivedMessage> remainingOrders = new ArrayList<>();
-        
-        while (!orderQueue.isEmpty()) {
-            OrderReceivedMessage order = orderQueue.poll();
-            if (order != null) {
-                // If order's placed time has arrived or passed (relative to simulation time), send it
-                if (!order.getOrderPlacedTime().isAfter(currentSimTime)) {
-                    ordersToSend.add(order);
-                } else {
-                    remainingOrders.add(order);
-                }
-            }
-        }
-        
-        // Put non-due orders back to queue
-        orderQueue.addAll(remainingOrders);
-        
-        // Send due orders
-        for (OrderReceivedMessage order : ordersToSend) {
+        // Send all due orders; only the due part of the release queue is touched
+        for (OrderReceivedMessage order : orderQueue.pollDue(currentSimTime)) {
             publishOrder(order);
         }
     }
 
+    /**
+     * Placed time of the next order waiting to be released (including streamed read-ahead), or null if none
+     */
+    public synchronized LocalDateTime nextPendingTime() {
+        refillFromStream(simulationClock.getCurrentTime());
+        LocalDateTime next = orderQueue.nextReleaseTime();
+        if (next == null && streamedAheadOrder != null) {
+            next = streamedAheadOrder.getOrderPlacedTime();
+        }
+        return next;
+    }
+
     /**
      * Publish order to message queue
      */
     private void publishOrder(OrderReceivedMessage order) {
+        // Counted before the send: a consumer on another thread may settle the order before publish returns
+        orderFlowTracker.orderPublished();
         try {
             String routingKey = topicPrefix + ".order.received";
-            rabbitTemplate.convertAndSend(exchangeName, routingKey, order);
+            messageBus.publish(routingKey, order, () -> {
+                log.error("[{}] Order {} dropped by the message bus", 
+                    simulationClock.formatTime(simulationClock.getCurrentTime()), order.getOrderId());
+                orderFlowTracker.orderSettled();
+            });
             log.info("[{}] {} received", simulationClock.formatTime(simulationClock.getCurrentTime()), order.getOrderId());
         } catch (Exception e) {
+            orderFlowTracker.orderSettled();
             log.error("[{}] Failed to publish order {}", simulationClock.formatTime(simulationClock.getCurrentTime()), order.getOrderId(), e);
         }
     }
 
     /**
      * Manually inject order (for testing)
+     * Future-dated orders wait in the release queue; orders placed now or in the past are sent immediately.
      */
     public void injectOrder(OrderReceivedMessage order) {
         order.setSenderId("OrderInjector");
+        if (order.getOrderPlacedTime() != null && order.getOrderPlacedTime().isAfter(simulationClock.getCurrentTime())) {
+            orderQueue.add(order);
+            return;
+        }
         publishOrder(order);
     }
 }
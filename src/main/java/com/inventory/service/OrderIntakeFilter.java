@@ -0,0 +1,197 @@
+package com.inventory.service;
+
+import com.inventory.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Drops redelivered or re-published orders before OrderManager does any work for them.
+ * A fixed-size Bloom filter of seen order IDs answers "definitely new" for almost every order without a query;
+ * only filter hits are confirmed against the orders table, so false positives cost one lookup, never an order.
+ * Orders still being handled are tracked exactly until their transaction completes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderIntakeFilter {
+
+    private final OrderRepository orderRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${inventory.order-intake.dedupe-enabled:true}")
+    private boolean enabled;
+
+    @Value("${inventory.order-intake.expected-orders:1000000}")
+    private long expectedOrders;
+
+    @Value("${inventory.order-intake.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final AtomicLong inserted = new AtomicLong();
+
+    private AtomicLongArray bits;
+    private long bitCount;
+    private int hashCount;
+
+    private Counter checkedCounter;
+    private Counter inFlightDuplicates;
+    private Counter storedDuplicates;
+    private Counter falsePositives;
+
+    @PostConstruct
+    public void initialize() {
+        // Standard Bloom sizing: m = -n ln p / (ln 2)^2, k = m/n ln 2
+        long expected = Math.max(1, expectedOrders);
+        double rate = Math.min(0.5, Math.max(1e-9, falsePositiveRate));
+        long words = Math.max(1, (long) Math.ceil(-expected * Math.log(rate) / (Math.log(2) * Math.log(2)) / 64));
+        if (words > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("inventory.order-intake.expected-orders too large: " + expectedOrders);
+        }
+        bits = new AtomicLongArray((int) words);
+        bitCount = words * 64;
+        hashCount = Math.max(1, (int) Math.round((double) bitCount / expected * Math.log(2)));
+
+        checkedCounter = Counter.builder("orders_intake_checked_total")
+                .description("Orders checked for duplicate order IDs at intake")
+                .register(meterRegistry);
+        inFlightDuplicates = Counter.builder("orders_duplicates_total")
+                .description("Orders dropped at intake because their order ID was already seen")
+                .tag("source", "in_flight")
+                .register(meterRegistry);
+        storedDuplicates = Counter.builder("orders_duplicates_total")
+                .description("Orders dropped at intake because their order ID was already seen")
+                .tag("source", "stored")
+                .register(meterRegistry);
+        falsePositives = Counter.builder("orders_intake_filter_false_positives_total")
+                .description("Filter hits for order IDs the orders table did not contain")
+                .register(meterRegistry);
+        Gauge.builder("orders_intake_filter_ids", inserted, AtomicLong::get)
+                .description("Order IDs added to the duplicate filter (false positives rise past expected-orders)")
+                .register(meterRegistry);
+
+        log.info("Order intake filter: {} KiB, {} hashes for {} orders at {} false positives",
+                words * 8 / 1024, hashCount, expected, rate);
+    }
+
+    /**
+     * Claim an order ID for processing; false if it is a duplicate and must be dropped.
+     * A claimed ID is released when the surrounding transaction completes (or immediately without one).
+     */
+    public boolean tryAcquire(String orderId) {
+        if (!enabled || orderId == null) {
+            return true;
+        }
+        checkedCounter.increment();
+
+        if (!inFlight.add(orderId)) {
+            inFlightDuplicates.increment();
+            return false;
+        }
+        if (mightContain(orderId)) {
+            boolean stored;
+            try {
+                stored = orderRepository.existsByOrderId(orderId);
+            } catch (RuntimeException e) {
+                inFlight.remove(orderId);
+                throw e;
+            }
+            if (stored) {
+                inFlight.remove(orderId);
+                storedDuplicates.increment();
+                return false;
+            }
+            falsePositives.increment();
+        }
+
+        releaseAfterCompletion(orderId);
+        return true;
+    }
+
+    /**
+     * Keep the ID in flight until the order row is committed, so a redelivery racing the commit is still caught
+     */
+    private void releaseAfterCompletion(String orderId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    release(orderId);
+                }
+            });
+        } else {
+            release(orderId);
+        }
+    }
+
+    /**
+     * Added even if the order was rolled back: the table check then lets a retry through
+     */
+    private void release(String orderId) {
+        put(orderId);
+        inFlight.remove(orderId);
+    }
+
+    private boolean mightContain(String orderId) {
+        long hash1 = hash1(orderId);
+        long hash2 = hash2(orderId);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void put(String orderId) {
+        long hash1 = hash1(orderId);
+        long hash2 = hash2(orderId);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+            bits.getAndAccumulate((int) (bit >>> 6), 1L << bit, (word, mask) -> word | mask);
+        }
+        inserted.incrementAndGet();
+    }
+
+    /**
+     * FNV-1a over the characters, finished with the MurmurHash3 mixer
+     */
+    private static long hash1(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Independent second hash for double hashing; forced odd so the probe sequence does not collapse
+     */
+    private static long hash2(String value) {
+        return mix(((long) value.hashCode() << 32) ^ value.length() ^ 0x9e3779b97f4a7c15L) | 1;
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
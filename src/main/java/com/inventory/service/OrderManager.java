@@ -1,22 +1,31 @@
 package com.inventory.service;
 
+import com.inventory.journal.OrderEventJournal;
+import com.inventory.journal.OrderFailureReason;
+import com.inventory.message.InventoryCommandMessage;
 import com.inventory.message.InventoryUpdateMessage;
 import com.inventory.message.OrderProcessedMessage;
 import com.inventory.message.OrderReceivedMessage;
+import com.inventory.messaging.InventoryPartitioner;
+import com.inventory.messaging.SimulationMessageBus;
 import com.inventory.model.Order;
 import com.inventory.model.OrderItem;
 import com.inventory.repository.OrderRepository;
-import io.micrometer.core.instrument.MeterRegistry;
-import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -25,84 +34,107 @@ import java.util.stream.Collectors;
 public class OrderManager {
 
     private final OrderRepository orderRepository;
-    private final InventoryManager inventoryManager;
-    private final RabbitTemplate rabbitTemplate;
+    private final ReservationEngine reservationEngine;
+    private final SimulationMessageBus messageBus;
     private final SimulationClock simulationClock;
-    private final MeterRegistry meterRegistry;
-
-    @Value("${spring.rabbitmq.exchange.name:symbotic.simulation}")
-    private String exchangeName;
+    private final OrderMetrics orderMetrics;
+    private final OrderFlowTracker orderFlowTracker;
+    private final InventoryPartitioner inventoryPartitioner;
+    private final OrderEventJournal orderEventJournal;
+    private final OrderIntakeFilter orderIntakeFilter;
 
     @Value("${spring.rabbitmq.topic.prefix:sim}")
     private String topicPrefix;
 
+    @Value("${inventory.order.audit-trail:false}")
+    private boolean auditTrailEnabled;
+
     /**
      * Listen to order received messages
      */
-    @RabbitListener(queues = "${spring.rabbitmq.topic.prefix:sim}.order.received")
+    @RabbitListener(queues = "${spring.rabbitmq.topic.prefix:sim}.order.received",
+            autoStartup = "#{'${inventory.messaging.transport:rabbit}' == 'rabbit'}")
     @Transactional
     public void handleOrderReceived(OrderReceivedMessage message) {
-        meterRegistry.counter("orders_received_total").increment();
-        Timer.Sample sample = Timer.start(meterRegistry);
-        String currentTime = simulationClock.formatTime(simulationClock.getCurrentTime());
-
-        // Log order received
-        log.info("ORDER_RECEIVED | orderId={} | orderType={} | customerId={} | itemsCount={} | placedTime={} | dueTime={}", 
-            message.getOrderId(), 
-            message.getOrderType(),
-            message.getCustomerId(),
-            message.getItems().size(),
-            message.getOrderPlacedTime(),
-            message.getOrderDueTime());
+        long startNanos = System.nanoTime();
+        int metricsScope = orderMetrics.scope(message.getOrderType(), message.getItems());
+        LocalDateTime currentTime = simulationClock.getCurrentTime();
 
+        boolean accepted = false;
+        Map<String, Integer> heldReservation = null;
         try {
-            // 1. Create order entity
+            // Drop redelivered or re-published orders before anything is reserved, saved or published
+            // (inside the try, so an intake check that throws still settles the order)
+            if (!orderIntakeFilter.tryAcquire(message.getOrderId())) {
+                log.warn("ORDER_DUPLICATE | orderId={} | time={}",
+                    message.getOrderId(),
+                    simulationClock.formatTime(currentTime));
+                return;
+            }
+            accepted = true;
+            orderMetrics.received(message.getOrderType());
+
+            // Record order received
+            orderEventJournal.received(message, currentTime);
+
+            // 1. Create order entity (lifecycle is tracked in memory, persisted once at its terminal state)
             Order order = createOrderFromMessage(message);
-            order.setStatus(Order.OrderStatus.RECEIVED);
-            order = orderRepository.save(order);
+            transition(order, Order.OrderStatus.RECEIVED);
 
             // 2. Check inventory and reserve
-            boolean inventoryAvailable = checkAndReserveInventory(order, message.getItems());
+            long reserveStart = System.nanoTime();
+            Map<String, Integer> quantities = quantitiesBySku(message.getItems());
+            ReservationEngine.ReservationResult reservation = checkAndReserveInventory(order, quantities);
+            orderMetrics.recordStage(metricsScope, OrderMetrics.Stage.RESERVE, reserveStart);
+
+            if (reservation.isSuccess()) {
+                // Released below if any later step fails, until handed to the inventory commands
+                heldReservation = quantities;
 
-            if (inventoryAvailable) {
                 // 3. Process order
-                processOrder(order);
-                meterRegistry.counter("orders_processed_total", "status", "SUCCESS").increment();
+                processOrder(order, metricsScope);
+                deductAfterCommit(order, quantities, metricsScope);
+                heldReservation = null;
+                orderMetrics.processed(metricsScope, OrderMetrics.Outcome.SUCCESS);
             } else {
-                // Insufficient inventory, mark as failed
-                order.setStatus(Order.OrderStatus.CANCELLED);
-                orderRepository.save(order);
+                // Unknown SKU or insufficient inventory, mark as failed
+                transition(order, Order.OrderStatus.CANCELLED);
+                persist(order, metricsScope);
                 
                 OrderProcessedMessage processedMessage = new OrderProcessedMessage();
                 processedMessage.setOrderId(order.getOrderId());
                 processedMessage.setStatus("FAILED");
                 processedMessage.setProcessedTime(simulationClock.getCurrentTime());
-                processedMessage.setMessage("Insufficient inventory");
-                publishOrderProcessed(processedMessage);
+                processedMessage.setMessage(reservation.isUnknownSku()
+                    ? "Unknown SKU " + reservation.getFailedSku()
+                    : "Insufficient inventory");
+                publishOrderProcessed(processedMessage, metricsScope);
 
-                meterRegistry.counter("orders_processed_total", "status", "FAILED").increment();
+                orderMetrics.processed(metricsScope, OrderMetrics.Outcome.FAILED);
                 
-                // Log order failure (structured format)
-                String itemsDetail = order.getItems().stream()
-                    .map(item -> String.format("%s:%d", item.getSku(), item.getQuantity()))
-                    .collect(Collectors.joining(","));
-                log.warn("ORDER_FAILED | orderId={} | reason=INSUFFICIENT_INVENTORY | items=[{}] | time={}", 
-                    order.getOrderId().toLowerCase(), 
-                    itemsDetail,
-                    currentTime);
+                // Record order failure
+                orderEventJournal.failed(order, reservation.isUnknownSku()
+                    ? OrderFailureReason.UNKNOWN_SKU
+                    : OrderFailureReason.INSUFFICIENT_INVENTORY, currentTime);
             }
 
         } catch (Exception e) {
             log.error("ORDER_ERROR | orderId={} | error={} | time={}", 
                 message.getOrderId(), 
                 e.getMessage(),
-                currentTime, 
+                simulationClock.formatTime(currentTime), 
                 e);
-            meterRegistry.counter("orders_processed_total", "status", "ERROR").increment();
+            if (heldReservation != null) {
+                releaseReservation(message.getOrderId(), heldReservation);
+            }
+            if (accepted) {
+                orderMetrics.processed(metricsScope, OrderMetrics.Outcome.ERROR);
+            }
         } finally {
-            sample.stop(Timer.builder("orders_processing_time")
-                    .description("Time taken to process an order end-to-end")
-                    .register(meterRegistry));
+            orderFlowTracker.orderSettled();
+            if (accepted) {
+                orderMetrics.recordProcessing(metricsScope, startNanos);
+            }
         }
     }
 
@@ -131,6 +163,17 @@ public class OrderManager {
         return order;
     }
 
+    /**
+     * Move order to a new status in memory, appending to the audit trail if enabled
+     */
+    private void transition(Order order, Order.OrderStatus status) {
+        order.setStatus(status);
+        if (auditTrailEnabled) {
+            String entry = status + "@" + simulationClock.formatTime(simulationClock.getCurrentTime());
+            order.setStatusTrail(order.getStatusTrail() == null ? entry : order.getStatusTrail() + ">" + entry);
+        }
+    }
+
     /**
      * Convert order type
      */
@@ -139,99 +182,175 @@ public class OrderManager {
     }
 
     /**
-     * Check and reserve inventory
+     * Check and reserve inventory (all lines or nothing; unknown SKUs reject the order)
      */
-    private boolean checkAndReserveInventory(Order order, List<OrderReceivedMessage.OrderItemDTO> items) {
-        boolean allAvailable = true;
-
-        for (OrderReceivedMessage.OrderItemDTO item : items) {
-            // Check inventory (will auto-create if not exists)
-            var inventoryItem = inventoryManager.getInventory(item.getSku());
-            if (inventoryItem.getAvailableQuantity() < item.getQuantity()) {
-                log.warn("[{}] Insufficient inventory for SKU {} in order {}. Available: {}, Requested: {}", 
-                    simulationClock.formatTime(simulationClock.getCurrentTime()),
-                    item.getSku(), order.getOrderId(), 
-                    inventoryItem.getAvailableQuantity(), item.getQuantity());
-                allAvailable = false;
-                break;
-            }
-
-            // Send reserve inventory message
-            InventoryUpdateMessage updateMessage = new InventoryUpdateMessage();
-            updateMessage.setSku(item.getSku());
-            updateMessage.setReservedQuantityChange(item.getQuantity());
-            updateMessage.setOperation("RESERVE");
-            updateMessage.setOrderId(order.getOrderId());
+    private ReservationEngine.ReservationResult checkAndReserveInventory(Order order, Map<String, Integer> quantitiesBySku) {
+        ReservationEngine.ReservationResult result =
+            reservationEngine.reserveAll(order.getOrderId(), quantitiesBySku);
 
-            String routingKey = topicPrefix + ".inventory.update";
-            rabbitTemplate.convertAndSend(exchangeName, routingKey, updateMessage);
+        if (result.isUnknownSku()) {
+            log.warn("[{}] Unknown SKU {} in order {}, order rejected",
+                simulationClock.formatTime(simulationClock.getCurrentTime()),
+                result.getFailedSku(), order.getOrderId());
+        } else if (!result.isSuccess()) {
+            log.warn("[{}] Insufficient inventory for SKU {} in order {}. Available: {}, Requested: {}", 
+                simulationClock.formatTime(simulationClock.getCurrentTime()),
+                result.getFailedSku(), order.getOrderId(), 
+                result.getAvailable(), result.getRequested());
         }
+        return result;
+    }
 
-        return allAvailable;
+    /**
+     * Sum order lines per SKU
+     */
+    private Map<String, Integer> quantitiesBySku(List<OrderReceivedMessage.OrderItemDTO> items) {
+        Map<String, Integer> quantities = new HashMap<>();
+        for (OrderReceivedMessage.OrderItemDTO item : items) {
+            quantities.merge(item.getSku(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
     }
 
     /**
      * Process order
      */
-    private void processOrder(Order order) {
-        String currentTime = simulationClock.formatTime(simulationClock.getCurrentTime());
+    private void processOrder(Order order, int metricsScope) {
+        LocalDateTime currentTime = simulationClock.getCurrentTime();
         
         // Update order status
-        order.setStatus(Order.OrderStatus.PROCESSING);
-        orderRepository.save(order);
+        transition(order, Order.OrderStatus.PROCESSING);
         
-        log.info("ORDER_PROCESSING | orderId={} | status=PROCESSING | time={}", 
-            order.getOrderId().toLowerCase(), currentTime);
+        orderEventJournal.processing(order, currentTime);
+
+        // Complete order
+        transition(order, Order.OrderStatus.COMPLETED);
+        persist(order, metricsScope);
 
-        // Deduct inventory
+        // Publish order processing completed message
+        OrderProcessedMessage processedMessage = new OrderProcessedMessage();
+        processedMessage.setOrderId(order.getOrderId());
+        processedMessage.setStatus("COMPLETED");
+        processedMessage.setProcessedTime(simulationClock.getCurrentTime());
+        processedMessage.setMessage("Order processed successfully");
+        publishOrderProcessed(processedMessage, metricsScope);
+
+        // Record order processing completed
+        orderEventJournal.completed(order, currentTime);
+    }
+
+    /**
+     * Hand the reservation to the inventory queues once the order is committed; release it if the transaction
+     * rolls back, so a redelivered order does not reserve the same lines twice.
+     * The commands are counted as in flight before the order settles, so event mode waits for them.
+     */
+    private void deductAfterCommit(Order order, Map<String, Integer> reservation, int metricsScope) {
+        Map<String, List<InventoryUpdateMessage>> linesByRoute = deductionsByRoute(order);
+        orderFlowTracker.commandsIssued(linesByRoute.size());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publishDeductions(order.getOrderId(), linesByRoute, reservation, metricsScope);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publishDeductions(order.getOrderId(), linesByRoute, reservation, metricsScope);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    orderFlowTracker.commandsSettled(linesByRoute.size());
+                    releaseReservation(order.getOrderId(), reservation);
+                }
+            }
+        });
+    }
+
+    /**
+     * Deduct inventory: one command per inventory queue carrying all of this order's lines for it
+     */
+    private Map<String, List<InventoryUpdateMessage>> deductionsByRoute(Order order) {
+        Map<String, List<InventoryUpdateMessage>> linesByRoute = new LinkedHashMap<>();
         for (OrderItem item : order.getItems()) {
-            InventoryUpdateMessage updateMessage = new InventoryUpdateMessage();
-            updateMessage.setSku(item.getSku());
-            updateMessage.setQuantityChange(item.getQuantity());
-            updateMessage.setOperation("DEDUCT");
-            updateMessage.setOrderId(order.getOrderId());
-
-            String routingKey = topicPrefix + ".inventory.update";
-            rabbitTemplate.convertAndSend(exchangeName, routingKey, updateMessage);
+            InventoryUpdateMessage line = new InventoryUpdateMessage();
+            line.setSku(item.getSku());
+            line.setQuantityChange(item.getQuantity());
+            line.setOperation("DEDUCT");
+
+            linesByRoute.computeIfAbsent(inventoryPartitioner.routingKey(item.getSku()), route -> new ArrayList<>())
+                .add(line);
             
             log.debug("ORDER_INVENTORY_DEDUCT | orderId={} | sku={} | quantity={} | zone={}", 
-                order.getOrderId().toLowerCase(),
+                order.getOrderId(),
                 item.getSku(),
                 item.getQuantity(),
                 item.getTemperatureZone());
         }
+        return linesByRoute;
+    }
 
-        // Complete order
-        order.setStatus(Order.OrderStatus.COMPLETED);
-        orderRepository.save(order);
+    /**
+     * Publish the deduction commands; lines of a command that cannot be published, or that the transport
+     * drops later, are released instead
+     */
+    private void publishDeductions(String orderId, Map<String, List<InventoryUpdateMessage>> linesByRoute,
+                                   Map<String, Integer> reservation, int metricsScope) {
+        long publishStart = System.nanoTime();
+        linesByRoute.forEach((route, lines) -> {
+            try {
+                messageBus.publish(route, new InventoryCommandMessage(orderId, lines), () -> {
+                    log.error("ORDER_DEDUCT_DROPPED | orderId={} | route={}", orderId, route);
+                    deductionLost(orderId, lines, reservation);
+                });
+            } catch (Exception e) {
+                log.error("ORDER_DEDUCT_PUBLISH_FAILED | orderId={} | route={} | error={}", 
+                    orderId, route, e.getMessage(), e);
+                deductionLost(orderId, lines, reservation);
+            }
+        });
+        orderMetrics.recordStage(metricsScope, OrderMetrics.Stage.DEDUCTION_PUBLISH, publishStart);
+    }
 
-        // Publish order processing completed message
-        OrderProcessedMessage processedMessage = new OrderProcessedMessage();
-        processedMessage.setOrderId(order.getOrderId());
-        processedMessage.setStatus("COMPLETED");
-        processedMessage.setProcessedTime(simulationClock.getCurrentTime());
-        processedMessage.setMessage("Order processed successfully");
-        publishOrderProcessed(processedMessage);
-
-        // Output structured order processing completed log
-        String itemsDetail = order.getItems().stream()
-            .map(item -> String.format("%s:%d", item.getSku(), item.getQuantity()))
-            .collect(Collectors.joining(","));
-        log.info("ORDER_COMPLETED | orderId={} | orderType={} | customerId={} | items=[{}] | status=COMPLETED | time={}", 
-            order.getOrderId().toLowerCase(),
-            order.getOrderType(),
-            order.getCustomerId(),
-            itemsDetail,
-            currentTime);
+    /**
+     * A deduction command that will never be applied: settle it and give its lines' reservation back.
+     * The order keeps its status; its stock stays available instead of being deducted.
+     */
+    private void deductionLost(String orderId, List<InventoryUpdateMessage> lines, Map<String, Integer> reservation) {
+        orderFlowTracker.commandsSettled(1);
+        Map<String, Integer> unpublished = new HashMap<>();
+        for (InventoryUpdateMessage line : lines) {
+            unpublished.put(line.getSku(), reservation.get(line.getSku()));
+        }
+        releaseReservation(orderId, unpublished);
+    }
+
+    private void releaseReservation(String orderId, Map<String, Integer> reservation) {
+        try {
+            reservationEngine.releaseAll(orderId, reservation);
+            log.warn("ORDER_RESERVATION_RELEASED | orderId={} | skus={}", orderId, reservation.keySet());
+        } catch (Exception e) {
+            log.error("ORDER_RESERVATION_RELEASE_FAILED | orderId={} | error={}", orderId, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Save order at its terminal state
+     */
+    private void persist(Order order, int metricsScope) {
+        long start = System.nanoTime();
+        orderRepository.save(order);
+        orderMetrics.recordStage(metricsScope, OrderMetrics.Stage.PERSIST, start);
     }
 
     /**
      * Publish order processed message
      */
-    private void publishOrderProcessed(OrderProcessedMessage message) {
+    private void publishOrderProcessed(OrderProcessedMessage message, int metricsScope) {
+        long start = System.nanoTime();
         try {
             String routingKey = topicPrefix + ".order.processed";
-            rabbitTemplate.convertAndSend(exchangeName, routingKey, message);
+            messageBus.publish(routingKey, message);
             log.debug("ORDER_PROCESSED_PUBLISHED | orderId={} | status={} | routingKey={}", 
                 message.getOrderId(),
                 message.getStatus(),
@@ -242,6 +361,8 @@ public class OrderManager {
                 e.getMessage(),
                 simulationClock.formatTime(simulationClock.getCurrentTime()), 
                 e);
+        } finally {
+            orderMetrics.recordStage(metricsScope, OrderMetrics.Stage.COMPLETION_PUBLISH, start);
         }
     }
 
@@ -251,11 +372,4 @@ public class OrderManager {
     public Order getOrder(String orderId) {
         return orderRepository.findByOrderId(orderId).orElse(null);
     }
-
-    /**
-     * Get all orders
-     */
-    public List<Order> getAllOrders() {
-        return orderRepository.findAll();
-    }
 }
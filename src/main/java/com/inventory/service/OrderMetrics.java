@@ -0,0 +1,167 @@
+package com.inventory.service;
+
+import com.inventory.message.OrderReceivedMessage;
+import com.inventory.model.Order;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order processing meters, registered once at startup and looked up by array index on the hot path.
+ * Every meter is tagged with order_type and zone (the order's temperature zone, MIXED if it spans several).
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderMetrics {
+
+    /**
+     * Timed steps of handleOrderReceived
+     */
+    public enum Stage {
+        RESERVE("reserve"),                       // Availability check and all-or-nothing reservation
+        DEDUCTION_PUBLISH("deduction_publish"),   // Inventory commands to the inventory queues
+        PERSIST("persist"),                       // Order saved at its terminal state
+        COMPLETION_PUBLISH("completion_publish"); // Order processed message
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    public enum Outcome {
+        SUCCESS, FAILED, ERROR
+    }
+
+    private static final String MIXED = "MIXED";
+    private static final String OTHER = "OTHER";
+    private static final String UNKNOWN = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${inventory.metrics.zones:AMBIENT,CHILLED,FROZEN}")
+    private List<String> knownZones;
+
+    private String[] zones;
+    private Counter[] receivedCounters;
+    private Timer[] processingTimers;
+    private Timer[][] stageTimers;
+    private Counter[][] outcomeCounters;
+
+    @PostConstruct
+    public void registerMetrics() {
+        zones = new String[knownZones.size() + 2];
+        for (int i = 0; i < knownZones.size(); i++) {
+            zones[i] = knownZones.get(i).trim();
+        }
+        zones[zones.length - 2] = MIXED;
+        zones[zones.length - 1] = OTHER;
+
+        int orderTypes = Order.OrderType.values().length + 1;
+        int scopes = orderTypes * zones.length;
+        receivedCounters = new Counter[orderTypes];
+        processingTimers = new Timer[scopes];
+        stageTimers = new Timer[Stage.values().length][scopes];
+        outcomeCounters = new Counter[Outcome.values().length][scopes];
+
+        for (int type = 0; type < orderTypes; type++) {
+            String orderType = orderTypeTag(type);
+            receivedCounters[type] = Counter.builder("orders_received_total")
+                    .tag("order_type", orderType)
+                    .register(meterRegistry);
+
+            for (int zone = 0; zone < zones.length; zone++) {
+                int scope = type * zones.length + zone;
+                processingTimers[scope] = Timer.builder("orders_processing_time")
+                        .description("Time taken to process an order end-to-end")
+                        .tag("order_type", orderType)
+                        .tag("zone", zones[zone])
+                        .publishPercentileHistogram()
+                        .register(meterRegistry);
+                for (Stage stage : Stage.values()) {
+                    stageTimers[stage.ordinal()][scope] = Timer.builder("order_stage_time")
+                            .description("Time spent in one stage of order processing")
+                            .tag("stage", stage.tag)
+                            .tag("order_type", orderType)
+                            .tag("zone", zones[zone])
+                            .publishPercentileHistogram()
+                            .register(meterRegistry);
+                }
+                for (Outcome outcome : Outcome.values()) {
+                    outcomeCounters[outcome.ordinal()][scope] = Counter.builder("orders_processed_total")
+                            .tag("status", outcome.name())
+                            .tag("order_type", orderType)
+                            .tag("zone", zones[zone])
+                            .register(meterRegistry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Meter index for an order: its type and temperature zone (MIXED if the lines span zones)
+     */
+    public int scope(Order.OrderType orderType, List<OrderReceivedMessage.OrderItemDTO> items) {
+        String zone = null;
+        if (items != null) {
+            for (OrderReceivedMessage.OrderItemDTO item : items) {
+                String itemZone = item.getTemperatureZone();
+                if (zone == null) {
+                    zone = itemZone;
+                } else if (!zone.equals(itemZone)) {
+                    zone = MIXED;
+                    break;
+                }
+            }
+        }
+        return typeIndex(orderType) * zones.length + zoneIndex(zone);
+    }
+
+    public void received(Order.OrderType orderType) {
+        receivedCounters[typeIndex(orderType)].increment();
+    }
+
+    /**
+     * Record a stage that started at startNanos and ends now
+     */
+    public void recordStage(int scope, Stage stage, long startNanos) {
+        stageTimers[stage.ordinal()][scope].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordProcessing(int scope, long startNanos) {
+        processingTimers[scope].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void processed(int scope, Outcome outcome) {
+        outcomeCounters[outcome.ordinal()][scope].increment();
+    }
+
+    private static int typeIndex(Order.OrderType orderType) {
+        return orderType != null ? orderType.ordinal() : Order.OrderType.values().length;
+    }
+
+    private static String orderTypeTag(int typeIndex) {
+        Order.OrderType[] types = Order.OrderType.values();
+        return typeIndex < types.length ? types[typeIndex].name() : UNKNOWN;
+    }
+
+    private int zoneIndex(String zone) {
+        if (zone == null) {
+            return zones.length - 1;
+        }
+        for (int i = 0; i < zones.length - 1; i++) {
+            if (zones[i].equals(zone)) {
+                return i;
+            }
+        }
+        return zones.length - 1;
+    }
+}
@@ -0,0 +1,114 @@
+package com.inventory.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.inventory.model.Order;
+import com.inventory.model.OrderFilter;
+import com.inventory.model.OrderPage;
+import com.inventory.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Order queries that stay bounded after long runs: keyset pages and batched NDJSON export,
+ * each batch loading its orders and items in two queries
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderQueryService {
+
+    private final OrderRepository orderRepository;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${inventory.order-query.max-page-size:1000}")
+    private int maxPageSize;
+
+    @Value("${inventory.order-query.export-batch-size:500}")
+    private int exportBatchSize;
+
+    /**
+     * Get up to limit orders after the cursor (null = from the start)
+     */
+    public OrderPage findPage(OrderFilter filter, Long after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        List<Long> ids = findIds(filter, after != null ? after : 0L, pageSize);
+        Long nextCursor = ids.size() == pageSize ? ids.get(ids.size() - 1) : null;
+        return new OrderPage(loadWithItems(ids), nextCursor);
+    }
+
+    /**
+     * Get all matching orders, loaded in export-sized keyset batches so items are fetched per batch, not per order
+     */
+    public List<Order> findAll(OrderFilter filter) {
+        List<Order> orders = new ArrayList<>();
+        long after = 0;
+        List<Long> ids;
+        do {
+            ids = findIds(filter, after, exportBatchSize);
+            orders.addAll(loadWithItems(ids));
+            if (!ids.isEmpty()) {
+                after = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == exportBatchSize);
+        return orders;
+    }
+
+    /**
+     * Write matching orders as newline-delimited JSON, one batch in memory at a time.
+     * The response runs on an async thread that open-in-view binds to the request's persistence context,
+     * so each written batch is cleared from it; otherwise every exported order stays managed until the end.
+     */
+    public long exportNdjson(OrderFilter filter, OutputStream out) throws IOException {
+        long exported = 0;
+        long after = 0;
+        try (SequenceWriter writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(out)) {
+            List<Long> ids;
+            do {
+                ids = findIds(filter, after, exportBatchSize);
+                for (Order order : loadWithItems(ids)) {
+                    writer.write(order);
+                }
+                writer.flush();
+                entityManager.clear();
+                exported += ids.size();
+                if (!ids.isEmpty()) {
+                    after = ids.get(ids.size() - 1);
+                }
+            } while (ids.size() == exportBatchSize);
+        }
+        if (exported > 0) {
+            out.write('\n');
+        }
+        out.flush();
+        log.info("Exported {} orders as NDJSON", exported);
+        return exported;
+    }
+
+    private List<Long> findIds(OrderFilter filter, long after, int limit) {
+        return orderRepository.findIdsAfter(after, filter.getStatus(), filter.getOrderType(), filter.getCustomerId(),
+                filter.getPlacedFrom(), filter.getPlacedTo(), PageRequest.of(0, limit));
+    }
+
+    private List<Order> loadWithItems(List<Long> ids) {
+        return ids.isEmpty() ? Collections.emptyList() : orderRepository.findWithItemsByIdIn(ids);
+    }
+}
@@ -0,0 +1,59 @@
+package com.inventory.service;
+
+import com.inventory.message.OrderReceivedMessage;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Pending orders indexed by ORDER_PLACED_TIME.
+ * Releasing due orders costs O(log n) per distinct placed time plus the number of orders released,
+ * independent of how many orders are still waiting.
+ */
+public class OrderReleaseQueue {
+
+    private final NavigableMap<LocalDateTime, Deque<OrderReceivedMessage>> ordersByPlacedTime = new TreeMap<>();
+    private int size;
+
+    /**
+     * Add an order; orders placed in the past are released on the next poll
+     */
+    public synchronized void add(OrderReceivedMessage order) {
+        ordersByPlacedTime.computeIfAbsent(order.getOrderPlacedTime(), time -> new ArrayDeque<>()).addLast(order);
+        size++;
+    }
+
+    /**
+     * Remove and return all orders placed at or before the given time, oldest first
+     */
+    public synchronized List<OrderReceivedMessage> pollDue(LocalDateTime now) {
+        List<OrderReceivedMessage> due = new ArrayList<>();
+        Map.Entry<LocalDateTime, Deque<OrderReceivedMessage>> head;
+        while ((head = ordersByPlacedTime.firstEntry()) != null && !head.getKey().isAfter(now)) {
+            due.addAll(ordersByPlacedTime.pollFirstEntry().getValue());
+        }
+        size -= due.size();
+        return due;
+    }
+
+    /**
+     * Placed time of the earliest pending order, or null if empty
+     */
+    public synchronized LocalDateTime nextReleaseTime() {
+        return ordersByPlacedTime.isEmpty() ? null : ordersByPlacedTime.firstKey();
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -0,0 +1,59 @@
+package com.inventory.service;
+
+import com.inventory.message.OrderReceivedMessage;
+import com.inventory.model.OrderCSVRecord;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Reads an order CSV incrementally, assembling consecutive rows with the same ORDER_ID into one order.
+ * Only the rows of the order being assembled are held in memory.
+ */
+public class OrderStreamReader implements Closeable {
+
+    private final Reader reader;
+    private final Iterator<OrderCSVRecord> records;
+    private final Function<List<OrderCSVRecord>, OrderReceivedMessage> converter;
+    private OrderCSVRecord nextOrderFirstRow;
+
+    OrderStreamReader(Reader reader, Iterator<OrderCSVRecord> records,
+                      Function<List<OrderCSVRecord>, OrderReceivedMessage> converter) {
+        this.reader = reader;
+        this.records = records;
+        this.converter = converter;
+        this.nextOrderFirstRow = records.hasNext() ? records.next() : null;
+    }
+
+    /**
+     * Read the next order, or null at end of file
+     */
+    public OrderReceivedMessage next() {
+        if (nextOrderFirstRow == null) {
+            return null;
+        }
+
+        List<OrderCSVRecord> rows = new ArrayList<>();
+        rows.add(nextOrderFirstRow);
+        nextOrderFirstRow = null;
+        while (records.hasNext()) {
+            OrderCSVRecord row = records.next();
+            if (!row.getOrderId().equals(rows.get(0).getOrderId())) {
+                nextOrderFirstRow = row;
+                break;
+            }
+            rows.add(row);
+        }
+        return converter.apply(rows);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
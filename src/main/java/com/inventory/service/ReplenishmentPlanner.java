@@ -0,0 +1,233 @@
+package com.inventory.service;
+
+import com.inventory.model.InventoryItem;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plans replenishment outside the inventory listeners, which only flag low stock.
+ * Low-stock SKUs are ordered in batches and delivered after a lead time measured on the simulation clock.
+ * A SKU has at most one open replenishment (requested or in transit) at a time.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReplenishmentPlanner {
+
+    private final InventoryLedger inventoryLedger;
+    private final SimulationClock simulationClock;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${inventory.inventory.replenishment-quantity:500}")
+    private int replenishmentQuantity;
+
+    @Value("${inventory.replenishment.batch-size:100}")
+    private int batchSize;
+
+    @Value("${inventory.replenishment.lead-time-minutes:30}")
+    private long leadTimeMinutes;
+
+    private final Map<String, Replenishment> open = new ConcurrentHashMap<>();
+    private final Queue<String> requested = new ConcurrentLinkedQueue<>();
+    // Ordered by due time: the lead time is fixed and the simulation clock only moves forward
+    private final Queue<Batch> inTransit = new ConcurrentLinkedQueue<>();
+    private final AtomicLong batchIds = new AtomicLong();
+
+    private Counter orderedCounter;
+    private Counter batchCounter;
+    private Counter deliveredUnitsCounter;
+
+    @PostConstruct
+    public void registerMetrics() {
+        orderedCounter = Counter.builder("inventory_replenishment_orders_total")
+                .description("SKU replenishments ordered")
+                .register(meterRegistry);
+        batchCounter = Counter.builder("inventory_replenishment_batches_total")
+                .description("Replenishment batches issued")
+                .register(meterRegistry);
+        deliveredUnitsCounter = Counter.builder("inventory_replenishment_delivered_units_total")
+                .description("Units added to stock by delivered replenishments")
+                .register(meterRegistry);
+        Gauge.builder("inventory_replenishment_open", open, Map::size)
+                .description("SKUs with a replenishment requested or in transit")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Flag a SKU as low on stock; no-op if it already has an open replenishment (safe to call under the SKU lock)
+     */
+    public void lowStock(InventoryItem item) {
+        String sku = item.getSku();
+        if (open.containsKey(sku) || open.putIfAbsent(sku, new Replenishment(sku, replenishmentQuantity)) != null) {
+            return;
+        }
+        requested.add(sku);
+        log.warn("Replenishment Planner: Low stock detected for SKU {}. Current: {}, Threshold: {}",
+            sku, item.getQuantity(), item.getLowStockThreshold());
+    }
+
+    /**
+     * Deliver the batches due at the current simulation time, then order the newly requested SKUs in batches.
+     * Driven by SimulationRunner after each clock move, so tick and event mode plan at the same simulated times.
+     */
+    public void plan() {
+        if (open.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = simulationClock.getCurrentTime();
+        deliverDue(now);
+        while (!requested.isEmpty()) {
+            placeBatch(now);
+        }
+    }
+
+    /**
+     * Check if flagged SKUs are waiting to be ordered at the next plan()
+     */
+    public boolean hasRequests() {
+        return !requested.isEmpty();
+    }
+
+    /**
+     * Get the due time of the next batch in transit (null if none)
+     */
+    public LocalDateTime nextDeliveryTime() {
+        Batch next = inTransit.peek();
+        return next != null ? next.dueTime : null;
+    }
+
+    private void placeBatch(LocalDateTime now) {
+        Map<String, Replenishment> polled = new LinkedHashMap<>();
+        String sku;
+        while (polled.size() < batchSize && (sku = requested.poll()) != null) {
+            polled.put(sku, open.get(sku));
+        }
+        if (polled.isEmpty()) {
+            return;
+        }
+
+        // Resolve the whole batch in one read; skip SKUs restocked since they were flagged or no longer known
+        List<InventoryItem> items;
+        try {
+            items = inventoryLedger.findAll(polled.keySet());
+        } catch (RuntimeException e) {
+            // Requeue for the next plan(): the SKUs are still open, so lowStock() would never flag them again
+            requested.addAll(polled.keySet());
+            throw e;
+        }
+        List<Replenishment> ordered = new ArrayList<>(polled.size());
+        for (InventoryItem item : items) {
+            if (item.getQuantity() <= item.getLowStockThreshold()) {
+                ordered.add(polled.remove(item.getSku()));
+            }
+        }
+        if (!polled.isEmpty()) {
+            closeSkipped(polled);
+        }
+        if (ordered.isEmpty()) {
+            return;
+        }
+
+        Batch batch = new Batch(batchIds.incrementAndGet(), now.plusMinutes(leadTimeMinutes), ordered);
+        inTransit.add(batch);
+        orderedCounter.increment(ordered.size());
+        batchCounter.increment();
+        log.info("Replenishment Planner: Batch {} ordered {} SKUs, due at {}",
+            batch.id, ordered.size(), simulationClock.formatTime(batch.dueTime));
+    }
+
+    /**
+     * Close replenishments that were not ordered, then re-flag any SKU that fell low again meanwhile
+     * (its lowStock() was a no-op while the replenishment was still open)
+     */
+    private void closeSkipped(Map<String, Replenishment> skipped) {
+        skipped.forEach(open::remove);
+        for (InventoryItem item : inventoryLedger.findAll(skipped.keySet())) {
+            if (item.getQuantity() <= item.getLowStockThreshold()) {
+                lowStock(item);
+            }
+        }
+    }
+
+    private void deliverDue(LocalDateTime now) {
+        Batch batch;
+        while ((batch = inTransit.peek()) != null && !batch.dueTime.isAfter(now)) {
+            deliver(batch);
+            inTransit.poll();
+        }
+    }
+
+    /**
+     * Apply one batch in a single ledger pass. Each replenishment is closed under its SKU lock as stock is added,
+     * so a concurrent lowStock() either sees it open with the delivered stock or opens a new one.
+     * Re-running a partly applied batch after a failure adds nothing twice.
+     */
+    private void deliver(Batch batch) {
+        Map<String, Replenishment> bySku = new LinkedHashMap<>();
+        for (Replenishment replenishment : batch.items) {
+            bySku.put(replenishment.sku, replenishment);
+        }
+        long[] units = new long[1];
+        inventoryLedger.updateAll(bySku.keySet(), item -> {
+            Replenishment replenishment = bySku.get(item.getSku());
+            if (!open.remove(replenishment.sku, replenishment)) {
+                return;
+            }
+            item.setQuantity(item.getQuantity() + replenishment.quantity);
+            units[0] += replenishment.quantity;
+            if (item.getQuantity() <= item.getLowStockThreshold()) {
+                lowStock(item);
+            }
+        });
+        // SKUs removed from the catalogue while in transit
+        bySku.values().forEach(replenishment -> open.remove(replenishment.sku, replenishment));
+
+        deliveredUnitsCounter.increment(units[0]);
+        log.info("Replenishment Planner: Batch {} delivered {} units to {} SKUs",
+            batch.id, units[0], batch.items.size());
+    }
+
+    /**
+     * Open replenishment of one SKU, from low-stock flag until delivery
+     */
+    private static final class Replenishment {
+        final String sku;
+        final int quantity;
+
+        Replenishment(String sku, int quantity) {
+            this.sku = sku;
+            this.quantity = quantity;
+        }
+    }
+
+    /**
+     * Replenishments ordered together and delivered together once the lead time has passed
+     */
+    private static final class Batch {
+        final long id;
+        final LocalDateTime dueTime;
+        final List<Replenishment> items;
+
+        Batch(long id, LocalDateTime dueTime, List<Replenishment> items) {
+            this.id = id;
+            this.dueTime = dueTime;
+            this.items = items;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.inventory.service;
+
+import com.inventory.model.InventoryItem;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reserves every line of an order atomically against the inventory ledger.
+ * Only the SKUs of the order are locked, always in SKU order, so orders on disjoint SKUs run in parallel.
+ * SKUs are never created here: an order naming an unknown SKU is rejected.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReservationEngine {
+
+    private final InventoryLedger inventoryLedger;
+
+    /**
+     * Reserve all lines or nothing
+     */
+    public ReservationResult reserveAll(String orderId, Map<String, Integer> quantitiesBySku) {
+        List<String> unknown = new ArrayList<>();
+        List<InventoryLedger.LedgerEntry> locked = lockInOrder(quantitiesBySku, unknown);
+        try {
+            if (!unknown.isEmpty()) {
+                String sku = unknown.get(0);
+                return ReservationResult.unknown(sku, quantitiesBySku.get(sku));
+            }
+
+            // Check every line before touching any of them
+            for (InventoryLedger.LedgerEntry entry : locked) {
+                InventoryItem item = entry.item;
+                int requested = quantitiesBySku.get(item.getSku());
+                int available = item.getAvailableQuantity();
+                if (available < requested) {
+                    return ReservationResult.rejected(item.getSku(), requested, available);
+                }
+            }
+
+            for (InventoryLedger.LedgerEntry entry : locked) {
+                InventoryItem item = entry.item;
+                item.setReservedQuantity(item.getReservedQuantity() + quantitiesBySku.get(item.getSku()));
+            }
+            inventoryLedger.recordChanges(locked);
+            log.debug("Reservation Engine: Reserved {} SKUs for order {}", locked.size(), orderId);
+            return ReservationResult.reserved();
+        } finally {
+            unlock(locked);
+        }
+    }
+
+    /**
+     * Give back a reservation that will not be deducted (never releases more than is reserved; unknown SKUs are skipped)
+     */
+    public void releaseAll(String orderId, Map<String, Integer> quantitiesBySku) {
+        List<InventoryLedger.LedgerEntry> locked = lockInOrder(quantitiesBySku, new ArrayList<>());
+        try {
+            for (InventoryLedger.LedgerEntry entry : locked) {
+                InventoryItem item = entry.item;
+                int released = Math.min(quantitiesBySku.get(item.getSku()), item.getReservedQuantity());
+                item.setReservedQuantity(item.getReservedQuantity() - released);
+            }
+            inventoryLedger.recordChanges(locked);
+            log.debug("Reservation Engine: Released {} SKUs for order {}", locked.size(), orderId);
+        } finally {
+            unlock(locked);
+        }
+    }
+
+    /**
+     * Lock existing entries in SKU order to avoid deadlocks between overlapping orders;
+     * uncached SKUs are loaded in one query before any lock is taken, and unknown ones are collected instead
+     */
+    private List<InventoryLedger.LedgerEntry> lockInOrder(Map<String, Integer> quantitiesBySku, List<String> unknown) {
+        inventoryLedger.preload(quantitiesBySku.keySet());
+        List<InventoryLedger.LedgerEntry> locked = new ArrayList<>(quantitiesBySku.size());
+        try {
+            for (String sku : new TreeMap<>(quantitiesBySku).keySet()) {
+                InventoryLedger.LedgerEntry entry = inventoryLedger.lockExisting(sku);
+                if (entry != null) {
+                    locked.add(entry);
+                } else {
+                    unknown.add(sku);
+                }
+            }
+        } catch (RuntimeException e) {
+            unlock(locked);
+            throw e;
+        }
+        return locked;
+    }
+
+    private void unlock(List<InventoryLedger.LedgerEntry> locked) {
+        for (int i = locked.size() - 1; i >= 0; i--) {
+            locked.get(i).lock.unlock();
+        }
+    }
+
+    /**
+     * Outcome of an all-or-nothing reservation
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class ReservationResult {
+        private final boolean success;
+        private final boolean unknownSku;
+        private final String failedSku;
+        private final int requested;
+        private final int available;
+
+        static ReservationResult reserved() {
+            return new ReservationResult(true, false, null, 0, 0);
+        }
+
+        static ReservationResult rejected(String sku, int requested, int available) {
+            return new ReservationResult(false, false, sku, requested, available);
+        }
+
+        static ReservationResult unknown(String sku, int requested) {
+            return new ReservationResult(false, true, sku, requested, 0);
+        }
+    }
+}
@@ -26,10 +26,13 @@ public class SimulationClock {
     @Value("${inventory.simulation.speed-factor:1.0}")
     private double speedFactor;
 
+    @Value("${inventory.simulation.mode:tick}")
+    private String mode;
+
     private LocalDateTime simStartTime;
     private LocalDateTime simEndTime;
-    private LocalDateTime currentSimTime;
-    private boolean isRunning = false;
+    private volatile LocalDateTime currentSimTime;
+    private volatile boolean isRunning = false;
     private final DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss");
 
     @PostConstruct
@@ -44,6 +47,7 @@ public class SimulationClock {
         log.info("Simulation End Time: {}", simEndTime);
         log.info("Tick Interval: {} seconds", tickSeconds);
         log.info("Speed Factor: {}x", speedFactor);
+        log.info("Mode: {}", mode);
         log.info("===================================");
     }
 
@@ -56,9 +60,38 @@ public class SimulationClock {
         }
 
         // Calculate actual seconds to add based on speedFactor
-        int secondsToAdd = (int) (tickSeconds * speedFactor);
-        currentSimTime = currentSimTime.plusSeconds(secondsToAdd);
+        currentSimTime = currentSimTime.plusSeconds(secondsPerTick());
+        checkEndReached();
+    }
+
+    /**
+     * Jump to the first tick boundary at or after the target time (event mode).
+     * Landing on tick boundaries releases orders at the same simulated times as tick mode.
+     */
+    public void advanceTo(LocalDateTime target) {
+        if (!isRunning || !target.isAfter(currentSimTime)) {
+            return;
+        }
+
+        long step = secondsPerTick();
+        long gap = java.time.Duration.between(currentSimTime, target).getSeconds();
+        long ticks = (gap + step - 1) / step;
+        currentSimTime = currentSimTime.plusSeconds(ticks * step);
+        checkEndReached();
+    }
+
+    /**
+     * Check if clock jumps between pending orders instead of ticking on wall-clock time
+     */
+    public boolean isEventMode() {
+        return "event".equalsIgnoreCase(mode);
+    }
+
+    private long secondsPerTick() {
+        return Math.max(1, (int) (tickSeconds * speedFactor));
+    }
 
+    private void checkEndReached() {
         // Check if end time is reached
         if (currentSimTime.isAfter(simEndTime) || currentSimTime.equals(simEndTime)) {
             isRunning = false;
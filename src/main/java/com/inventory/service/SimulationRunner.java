@@ -3,26 +3,115 @@ package com.inventory.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class SimulationRunner {
 
     private final SimulationClock simulationClock;
+    private final OrderInjector orderInjector;
+    private final OrderFlowTracker orderFlowTracker;
+    private final ReplenishmentPlanner replenishmentPlanner;
 
     @Value("${inventory.simulation.tick-interval-ms:1000}")
     private long tickIntervalMs;
 
+    @Value("${inventory.simulation.event-poll-ms:5}")
+    private long eventPollMs;
+
+    private Thread eventThread;
+
     /**
      * Scheduled tick simulation clock
      */
     @Scheduled(fixedDelayString = "${inventory.simulation.tick-interval-ms:1000}")
     public void runSimulationTick() {
-        if (simulationClock.isRunning()) {
+        if (simulationClock.isRunning() && !simulationClock.isEventMode()) {
             simulationClock.tick();
+            replenishmentPlanner.plan();
+        }
+    }
+
+    /**
+     * Event mode: step on a dedicated thread that wakes as soon as the pipeline drains
+     * (OrderFlowTracker signals when the last order or command settles), so steps are not paced by a poll.
+     * The poll interval remains as a fallback wait. Started once the application is ready, like the scheduled tasks,
+     * so inventory and orders are loaded before the first step.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startEventLoop() {
+        if (!simulationClock.isEventMode()) {
+            return;
+        }
+        eventThread = new Thread(this::runEventLoop, "simulation-event-step");
+        eventThread.setDaemon(true);
+        eventThread.start();
+    }
+
+    @PreDestroy
+    public void stopEventLoop() {
+        if (eventThread != null) {
+            eventThread.interrupt();
+        }
+    }
+
+    private void runEventLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                orderFlowTracker.awaitDrained(eventPollMs, TimeUnit.MILLISECONDS);
+                if (!runEventStep()) {
+                    Thread.sleep(eventPollMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Simulation Runner: Event step failed", e);
+            }
+        }
+    }
+
+    /**
+     * Event mode: once the previous batch has drained, jump to the next event and handle it.
+     * Events are pending orders, replenishment deliveries, and the next tick when low-stock SKUs are waiting
+     * to be ordered (tick mode orders them on the tick after they are flagged); deliveries go before orders.
+     * Returns false when the clock is not running in event mode, so the loop backs off for a poll interval.
+     */
+    boolean runEventStep() {
+        if (!simulationClock.isEventMode() || !simulationClock.isRunning()) {
+            return false;
+        }
+        if (orderFlowTracker.inFlight() > 0) {
+            return true; // Woken by the poll timeout; wait for the drain signal again
+        }
+
+        LocalDateTime now = simulationClock.getCurrentTime();
+        LocalDateTime next = earliest(orderInjector.nextPendingTime(), replenishmentPlanner.nextDeliveryTime());
+        if (replenishmentPlanner.hasRequests()) {
+            next = earliest(next, now.plusSeconds(1)); // Rounded up to the next tick by advanceTo
+        }
+        if (next == null) {
+            simulationClock.advanceTo(simulationClock.getSimEndTime());
+            return true;
+        }
+        simulationClock.advanceTo(next);
+        replenishmentPlanner.plan();
+        orderInjector.releaseDueOrders();
+        return true;
+    }
+
+    private static LocalDateTime earliest(LocalDateTime a, LocalDateTime b) {
+        if (a == null) {
+            return b;
         }
+        return b == null || a.isBefore(b) ? a : b;
     }
 }
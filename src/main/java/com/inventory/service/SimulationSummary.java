@@ -0,0 +1,76 @@
+package com.inventory.service;
+
+import com.inventory.model.InventoryItem;
+import com.inventory.model.Order;
+import com.inventory.repository.InventoryItemRepository;
+import com.inventory.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Logs one SIMULATION_SUMMARY line once the simulation has ended and every order and inventory command has settled:
+ * order counts per status and a digest of each SKU's ledger quantity and reservation.
+ * The line holds no mode-specific values, so a tick-mode and an event-mode run of the same input must print
+ * the same line (compared by check-mode-parity.sh).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SimulationSummary {
+
+    private static final int SKU_CHUNK = 1000;
+
+    private final SimulationClock simulationClock;
+    private final OrderFlowTracker orderFlowTracker;
+    private final OrderRepository orderRepository;
+    private final InventoryItemRepository inventoryRepository;
+    private final InventoryLedger inventoryLedger;
+
+    private volatile boolean logged;
+
+    @Scheduled(fixedDelayString = "${inventory.simulation.summary-poll-ms:1000}")
+    public void logWhenDrained() {
+        if (logged || simulationClock.isRunning() || orderFlowTracker.inFlight() > 0) {
+            return;
+        }
+        logged = true;
+        log.info(summary());
+    }
+
+    /**
+     * Summarize orders and inventory as they are now (inventory read from the ledger, so unflushed changes count)
+     */
+    public String summary() {
+        StringBuilder orders = new StringBuilder();
+        for (Order.OrderStatus status : Order.OrderStatus.values()) {
+            long count = orderRepository.countByStatus(status);
+            if (count > 0) {
+                orders.append(orders.isEmpty() ? "" : ",").append(status).append('=').append(count);
+            }
+        }
+
+        List<String> skus = inventoryRepository.findAllSkuZones().stream()
+                .map(InventoryItemRepository.SkuZone::getSku)
+                .toList();
+        CRC32 digest = new CRC32();
+        long quantity = 0;
+        long reserved = 0;
+        for (int from = 0; from < skus.size(); from += SKU_CHUNK) {
+            for (InventoryItem item : inventoryLedger.findAll(skus.subList(from, Math.min(from + SKU_CHUNK, skus.size())))) {
+                quantity += item.getQuantity();
+                reserved += item.getReservedQuantity();
+                digest.update((item.getSku() + ':' + item.getQuantity() + ':' + item.getReservedQuantity() + '\n')
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        return String.format("SIMULATION_SUMMARY | orders=%s | skus=%d | quantity=%d | reserved=%d | digest=%08x",
+                orders, skus.size(), quantity, reserved, digest.getValue());
+    }
+}
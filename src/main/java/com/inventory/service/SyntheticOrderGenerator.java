@@ -0,0 +1,324 @@
+package com.inventory.service;
+
+import com.inventory.message.OrderReceivedMessage;
+import com.inventory.messaging.SimulationMessageBus;
+import com.inventory.model.Order;
+import com.inventory.repository.InventoryItemRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Generates orders at a target rate for stress runs (replaces CSV replay; set use-csv to false).
+ * SKUs are drawn with Zipf-skewed popularity from the loaded catalogue of the chosen temperature zone.
+ * Runs on the tick clock only: event mode jumps between known order times, which a rate generator does not have.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "inventory.load-generator.enabled", havingValue = "true")
+public class SyntheticOrderGenerator {
+
+    private final SimulationMessageBus messageBus;
+    private final SimulationClock simulationClock;
+    private final InventoryItemRepository inventoryRepository;
+    private final OrderFlowTracker orderFlowTracker;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${spring.rabbitmq.topic.prefix:sim}")
+    private String topicPrefix;
+
+    @Value("${inventory.simulation.tick-interval-ms:1000}")
+    private long tickIntervalMs;
+
+    @Value("${inventory.load-generator.orders-per-second:100}")
+    private double ordersPerSecond;
+
+    @Value("${inventory.load-generator.orders-per-sim-minute:0}")
+    private double ordersPerSimMinute;
+
+    @Value("${inventory.load-generator.zipf-exponent:1.0}")
+    private double zipfExponent;
+
+    @Value("${inventory.load-generator.min-lines:1}")
+    private int minLines;
+
+    @Value("${inventory.load-generator.max-lines:5}")
+    private int maxLines;
+
+    @Value("${inventory.load-generator.max-quantity:3}")
+    private int maxQuantity;
+
+    @Value("${inventory.load-generator.delivery-ratio:0.5}")
+    private double deliveryRatio;
+
+    @Value("${inventory.load-generator.zone-mix:AMBIENT:0.6,CHILLED:0.3,FROZEN:0.1}")
+    private String zoneMix;
+
+    @Value("${inventory.load-generator.due-minutes:240}")
+    private long dueMinutes;
+
+    @Value("${inventory.load-generator.customers:1000}")
+    private int customers;
+
+    @Value("${inventory.load-generator.fallback-catalogue-size:1000}")
+    private int fallbackCatalogueSize;
+
+    private final Map<String, ZipfSampler> catalogueByZone = new LinkedHashMap<>();
+    private String[] zones;
+    private double[] zoneCumulativeWeights;
+    private final Lock generateLock = new ReentrantLock();
+
+    private Counter generatedCounter;
+    private long startNanos;
+    private LocalDateTime startSimTime;
+    private long generated;
+    private long lastReportNanos;
+    private long lastReportGenerated;
+    private volatile double achievedRate;
+
+    @PostConstruct
+    public void init() {
+        // Event mode would see no pending orders and jump straight to sim-end-time, ending the run with no load
+        if (simulationClock.isEventMode()) {
+            throw new IllegalStateException("inventory.load-generator.enabled requires inventory.simulation.mode: tick");
+        }
+
+        generatedCounter = meterRegistry.counter("load_generator_orders_total");
+        Gauge.builder("load_generator_target_rate", this, SyntheticOrderGenerator::targetRatePerSecond)
+                .description("Target order generation rate (orders per wall-clock second)")
+                .register(meterRegistry);
+        Gauge.builder("load_generator_achieved_rate", this, generator -> generator.achievedRate)
+                .description("Achieved order generation rate over the last report interval (orders per second)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Generate the orders owed since the previous tick.
+     * Fixed-rate runs may overlap on virtual threads; an overlapping run is skipped and the next one catches up.
+     * A ReentrantLock rather than synchronized, so publishing does not pin the carrier thread.
+     */
+    @Scheduled(fixedRateString = "${inventory.load-generator.tick-ms:10}")
+    public void generate() {
+        if (!simulationClock.isRunning() || !generateLock.tryLock()) {
+            return;
+        }
+        try {
+            generateOwed();
+        } finally {
+            generateLock.unlock();
+        }
+    }
+
+    private void generateOwed() {
+        if (zones == null) {
+            loadCatalogue();
+            startNanos = System.nanoTime();
+            startSimTime = simulationClock.getCurrentTime();
+            lastReportNanos = startNanos;
+        }
+
+        long owed = targetCount() - generated;
+        for (long i = 0; i < owed; i++) {
+            publish(nextOrder());
+        }
+    }
+
+    /**
+     * Log target vs. achieved rate so the saturation point of the pipeline is visible
+     */
+    @Scheduled(fixedRateString = "${inventory.load-generator.report-interval-ms:10000}")
+    public void report() {
+        if (zones == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        long count = generated;
+        double seconds = (now - lastReportNanos) / 1_000_000_000.0;
+        achievedRate = seconds > 0 ? (count - lastReportGenerated) / seconds : 0.0;
+        lastReportNanos = now;
+        lastReportGenerated = count;
+
+        log.info("Load generator: target {} orders/s, achieved {} orders/s, in flight {}",
+                String.format("%.1f", targetRatePerSecond()), String.format("%.1f", achievedRate),
+                orderFlowTracker.inFlight());
+    }
+
+    private long targetCount() {
+        if (ordersPerSimMinute > 0) {
+            long simSeconds = Duration.between(startSimTime, simulationClock.getCurrentTime()).getSeconds();
+            return (long) (ordersPerSimMinute * simSeconds / 60.0);
+        }
+        return (long) (ordersPerSecond * (System.nanoTime() - startNanos) / 1_000_000_000.0);
+    }
+
+    private double targetRatePerSecond() {
+        if (ordersPerSimMinute > 0) {
+            // Simulated seconds per wall-clock second, from the clock's tick configuration
+            double simSecondsPerSecond = simulationClock.getTickSeconds() * simulationClock.getSpeedFactor() * 1000.0
+                    / Math.max(1, tickIntervalMs);
+            return ordersPerSimMinute * simSecondsPerSecond / 60.0;
+        }
+        return ordersPerSecond;
+    }
+
+    private void publish(OrderReceivedMessage order) {
+        // Counted before the send: a consumer on another thread may settle the order before publish returns
+        orderFlowTracker.orderPublished();
+        try {
+            messageBus.publish(topicPrefix + ".order.received", order, () -> {
+                log.error("Load generator: Order {} dropped by the message bus", order.getOrderId());
+                orderFlowTracker.orderSettled();
+            });
+            generatedCounter.increment();
+        } catch (Exception e) {
+            orderFlowTracker.orderSettled();
+            log.error("Load generator: Failed to publish order {}", order.getOrderId(), e);
+        } finally {
+            generated++;
+        }
+    }
+
+    private OrderReceivedMessage nextOrder() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime now = simulationClock.getCurrentTime();
+
+        int lines = random.nextInt(minLines, maxLines + 1);
+        List<OrderReceivedMessage.OrderItemDTO> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            String zone = nextZone(random);
+            items.add(new OrderReceivedMessage.OrderItemDTO(
+                    catalogueByZone.get(zone).sample(random), random.nextInt(1, maxQuantity + 1), zone));
+        }
+
+        OrderReceivedMessage order = new OrderReceivedMessage();
+        order.setOrderId("GEN-" + (generated + 1));
+        order.setOrderType(random.nextDouble() < deliveryRatio ? Order.OrderType.DELIVERY : Order.OrderType.PICKUP);
+        order.setOrderPlacedTime(now);
+        order.setOrderDueTime(now.plusMinutes(dueMinutes));
+        order.setCustomerId(String.format("CUST-%05d", random.nextInt(customers) + 1));
+        order.setSenderId("SyntheticOrderGenerator");
+        order.setItems(items);
+        return order;
+    }
+
+    private String nextZone(ThreadLocalRandom random) {
+        double r = random.nextDouble() * zoneCumulativeWeights[zoneCumulativeWeights.length - 1];
+        for (int i = 0; i < zoneCumulativeWeights.length; i++) {
+            if (r < zoneCumulativeWeights[i]) {
+                return zones[i];
+            }
+        }
+        return zones[zones.length - 1];
+    }
+
+    /**
+     * Build per-zone Zipf samplers from the loaded catalogue
+     */
+    private void loadCatalogue() {
+        Map<String, List<String>> skusByZone = inventoryRepository.findAllSkuZones().stream()
+                .filter(item -> item.getTemperatureZone() != null)
+                .collect(Collectors.groupingBy(InventoryItemRepository.SkuZone::getTemperatureZone,
+                        LinkedHashMap::new,
+                        Collectors.mapping(InventoryItemRepository.SkuZone::getSku, Collectors.toList())));
+
+        // Without a catalogue there are no stored zones to contradict: every zone draws from synthetic SKUs
+        List<String> allSkus = skusByZone.values().stream().flatMap(List::stream).sorted().collect(Collectors.toList());
+        boolean synthetic = allSkus.isEmpty();
+        if (synthetic) {
+            log.warn("Load generator: Inventory catalogue is empty, using {} synthetic SKUs", fallbackCatalogueSize);
+            for (int i = 1; i <= fallbackCatalogueSize; i++) {
+                allSkus.add(String.format("SKU-%05d", i));
+            }
+        }
+
+        List<String> zoneNames = new ArrayList<>();
+        List<Double> cumulative = new ArrayList<>();
+        double total = 0;
+        for (String entry : zoneMix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            String zone = parts[0].trim();
+            double weight = Double.parseDouble(parts[1].trim());
+            if (weight <= 0) {
+                continue;
+            }
+            List<String> skus = synthetic ? allSkus : skusByZone.get(zone);
+            if (skus == null || skus.isEmpty()) {
+                // Lines must carry their SKU's zone; the remaining weights are renormalized by the sampler
+                log.warn("Load generator: No SKUs in zone {}, dropping it from the zone mix", zone);
+                continue;
+            }
+            catalogueByZone.put(zone, new ZipfSampler(skus, zipfExponent));
+            total += weight;
+            zoneNames.add(zone);
+            cumulative.add(total);
+        }
+
+        if (zoneNames.isEmpty()) {
+            log.warn("Load generator: No zone in {} has SKUs, drawing evenly from the catalogue's zones {}",
+                    zoneMix, skusByZone.keySet());
+            for (Map.Entry<String, List<String>> zone : skusByZone.entrySet()) {
+                catalogueByZone.put(zone.getKey(), new ZipfSampler(zone.getValue(), zipfExponent));
+                total += 1;
+                zoneNames.add(zone.getKey());
+                cumulative.add(total);
+            }
+        }
+
+        zones = zoneNames.toArray(new String[0]);
+        zoneCumulativeWeights = cumulative.stream().mapToDouble(Double::doubleValue).toArray();
+        log.info("Load generator: Catalogue of {} SKUs, zones {}, target {} orders/s",
+                allSkus.size(), zoneNames, targetRatePerSecond());
+    }
+
+    /**
+     * Samples ranks 1..n with probability proportional to 1 / rank^exponent
+     */
+    static final class ZipfSampler {
+        private final String[] skus;
+        private final double[] cumulative;
+
+        ZipfSampler(List<String> skus, double exponent) {
+            this.skus = skus.toArray(new String[0]);
+            this.cumulative = new double[this.skus.length];
+            double total = 0;
+            for (int rank = 1; rank <= this.skus.length; rank++) {
+                total += 1.0 / Math.pow(rank, exponent);
+                cumulative[rank - 1] = total;
+            }
+        }
+
+        String sample(ThreadLocalRandom random) {
+            double r = random.nextDouble() * cumulative[cumulative.length - 1];
+            int low = 0;
+            int high = cumulative.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulative[mid] <= r) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return skus[low];
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.inventory.journal;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InventoryEventLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversTheLatestStatePerSkuFromTheLogTail() {
+        InventoryEventLog first = open();
+        first.append("SKU-A", 100, 0);
+        first.append("SKU-A", 100, 7);
+        first.append("SKU-B", 40, 2);
+        // No close(): recovery must replay the records written after the startup snapshot
+
+        InventoryEventLog restarted = open();
+
+        assertThat(restarted.recoveredState()).containsOnlyKeys("SKU-A", "SKU-B");
+        assertThat(restarted.recoveredState().get("SKU-A")).containsExactly(100, 7);
+        assertThat(restarted.recoveredState().get("SKU-B")).containsExactly(40, 2);
+        restarted.close();
+    }
+
+    @Test
+    void recoversFromTheShutdownSnapshot() {
+        InventoryEventLog first = open();
+        first.append("SKU-A", 90, 3);
+        first.close();
+
+        InventoryEventLog restarted = open();
+
+        assertThat(restarted.recoveredState().get("SKU-A")).containsExactly(90, 3);
+        restarted.close();
+    }
+
+    @Test
+    void recoversNothingWhenDisabled() {
+        InventoryEventLog disabled = new InventoryEventLog(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(disabled, "enabled", false);
+        disabled.open();
+
+        assertThat(disabled.recoveredState()).isEmpty();
+    }
+
+    private InventoryEventLog open() {
+        InventoryEventLog eventLog = new InventoryEventLog(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(eventLog, "enabled", true);
+        ReflectionTestUtils.setField(eventLog, "directory", directory.toString());
+        ReflectionTestUtils.setField(eventLog, "segmentRecords", 16);
+        eventLog.open();
+        return eventLog;
+    }
+}
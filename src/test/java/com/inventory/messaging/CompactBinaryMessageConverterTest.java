@@ -0,0 +1,58 @@
+package com.inventory.messaging;
+
+import com.inventory.message.OrderReceivedMessage;
+import com.inventory.model.Order;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompactBinaryMessageConverterTest {
+
+    private final CompactBinaryMessageConverter converter = new CompactBinaryMessageConverter();
+
+    @Test
+    void roundTripsAnOrder() {
+        OrderReceivedMessage order = order(Order.OrderType.DELIVERY);
+
+        Object decoded = converter.fromMessage(converter.toMessage(order, new MessageProperties()));
+
+        assertThat(decoded).isEqualTo(order);
+    }
+
+    @Test
+    void roundTripsAnOrderWithoutType() {
+        OrderReceivedMessage order = order(null);
+
+        Object decoded = converter.fromMessage(converter.toMessage(order, new MessageProperties()));
+
+        assertThat(decoded).isEqualTo(order);
+    }
+
+    @Test
+    void rejectsAnOrderTypeOrdinalOutOfRange() {
+        byte[] body = converter.toMessage(order(Order.OrderType.DELIVERY), new MessageProperties()).getBody();
+        byte[] untyped = converter.toMessage(order(null), new MessageProperties()).getBody();
+        int typeOffset = 0;
+        while (body[typeOffset] == untyped[typeOffset]) {
+            typeOffset++;
+        }
+        body[typeOffset] = (byte) Order.OrderType.values().length;
+
+        assertThatThrownBy(() -> converter.fromMessage(new Message(body, new MessageProperties())))
+                .isInstanceOf(MessageConversionException.class)
+                .hasMessageContaining("order type");
+    }
+
+    private static OrderReceivedMessage order(Order.OrderType type) {
+        return new OrderReceivedMessage("ORD-1", type, LocalDateTime.parse("2024-01-13T08:00:00"),
+                LocalDateTime.parse("2024-01-13T10:00:00"),
+                List.of(new OrderReceivedMessage.OrderItemDTO("SKU-A", 2, "AMBIENT")), "CUST-1", "SENDER-1");
+    }
+}
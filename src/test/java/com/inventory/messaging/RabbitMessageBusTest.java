@@ -0,0 +1,114 @@
+package com.inventory.messaging;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class RabbitMessageBusTest {
+
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RabbitMessageBus bus = new RabbitMessageBus(rabbitTemplate, meterRegistry);
+    private RabbitTemplate.ConfirmCallback confirmCallback;
+
+    private void start(int maxInFlight, int maxAttempts, long confirmTimeoutMs) {
+        ReflectionTestUtils.setField(bus, "exchangeName", "test.exchange");
+        ReflectionTestUtils.setField(bus, "confirmsEnabled", true);
+        ReflectionTestUtils.setField(bus, "maxInFlight", maxInFlight);
+        ReflectionTestUtils.setField(bus, "maxAttempts", maxAttempts);
+        ReflectionTestUtils.setField(bus, "windowWaitMs", 50L);
+        ReflectionTestUtils.setField(bus, "confirmTimeoutMs", confirmTimeoutMs);
+        ReflectionTestUtils.setField(bus, "shutdownWaitMs", 0L);
+        bus.init();
+
+        ArgumentCaptor<RabbitTemplate.ConfirmCallback> callback = ArgumentCaptor.forClass(RabbitTemplate.ConfirmCallback.class);
+        verify(rabbitTemplate).setConfirmCallback(callback.capture());
+        confirmCallback = callback.getValue();
+    }
+
+    @AfterEach
+    void stop() {
+        bus.awaitConfirms();
+    }
+
+    @Test
+    void ackFreesTheWindowSlotForTheNextPublish() {
+        start(1, 3, 30_000);
+        AtomicInteger dropped = new AtomicInteger();
+
+        bus.publish("sim.order.received", "first", dropped::incrementAndGet);
+        confirmCallback.confirm(lastCorrelation(1), true, null);
+        bus.publish("sim.order.received", "second", dropped::incrementAndGet);
+
+        assertThat(dropped).hasValue(0);
+        assertThat(meterRegistry.timer("publisher_confirm_latency").count()).isEqualTo(1);
+    }
+
+    @Test
+    void publishBeyondAFullWindowIsDroppedAfterTheWait() {
+        start(1, 3, 30_000);
+        AtomicInteger dropped = new AtomicInteger();
+
+        bus.publish("sim.order.received", "first", dropped::incrementAndGet);
+        bus.publish("sim.order.received", "second", dropped::incrementAndGet);
+
+        assertThat(dropped).hasValue(1);
+        verify(rabbitTemplate, times(1)).convertAndSend(eq("test.exchange"), anyString(), any(Object.class), any(CorrelationData.class));
+    }
+
+    @Test
+    void nackedMessageIsResentThenDroppedOnceOutOfAttempts() throws InterruptedException {
+        start(1, 2, 30_000);
+        CountDownLatch dropped = new CountDownLatch(1);
+
+        bus.publish("sim.order.received", "order", dropped::countDown);
+        confirmCallback.confirm(lastCorrelation(1), false, "queue full");
+        CorrelationData resent = lastCorrelation(2);
+        confirmCallback.confirm(resent, false, "queue full");
+
+        assertThat(dropped.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(meterRegistry.counter("publisher_resends_total").count()).isEqualTo(1);
+        // The dropped message gave its slot back
+        AtomicInteger droppedAfter = new AtomicInteger();
+        bus.publish("sim.order.received", "next", droppedAfter::incrementAndGet);
+        assertThat(droppedAfter).hasValue(0);
+    }
+
+    @Test
+    void messageNeverConfirmedIsDroppedAfterTheConfirmTimeout() throws InterruptedException {
+        start(1, 1, 20);
+        CountDownLatch dropped = new CountDownLatch(1);
+
+        bus.publish("sim.order.received", "order", dropped::countDown);
+
+        assertThat(dropped.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(meterRegistry.counter("publisher_confirm_timeouts_total").count()).isEqualTo(1);
+    }
+
+    /**
+     * Correlation of the latest send, once the given number of sends has happened (resends run on another thread)
+     */
+    private CorrelationData lastCorrelation(int sends) {
+        ArgumentCaptor<CorrelationData> correlation = ArgumentCaptor.forClass(CorrelationData.class);
+        verify(rabbitTemplate, timeout(5000).times(sends))
+                .convertAndSend(eq("test.exchange"), anyString(), any(Object.class), correlation.capture());
+        return correlation.getValue();
+    }
+}
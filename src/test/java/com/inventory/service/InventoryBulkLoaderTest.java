@@ -0,0 +1,62 @@
+package com.inventory.service;
+
+import com.inventory.model.InventoryItem;
+import com.inventory.repository.InventoryItemRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InventoryBulkLoaderTest {
+
+    private final InventoryItemRepository repository = mock(InventoryItemRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final InventoryBulkLoader loader = new InventoryBulkLoader(repository, jdbcTemplate);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void insertsNewSkusAndUpdatesExistingOnesInBatches() {
+        when(repository.findExistingSkus(anyCollection())).thenReturn(Set.of("SKU-B"));
+
+        int rows = loader.upsert(List.of(
+                LedgerFixtures.item(0, "SKU-A", 10, 0, 0),
+                LedgerFixtures.item(0, "SKU-B", 20, 3, 0)));
+
+        assertThat(rows).isEqualTo(2);
+        ArgumentCaptor<List<Object[]>> inserts = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<Object[]>> updates = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT"), inserts.capture());
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE"), updates.capture());
+        assertThat(inserts.getValue()).singleElement()
+                .satisfies(row -> assertThat(row).containsExactly("SKU-A", "Item SKU-A", 10, 0, "AMBIENT", 100));
+        assertThat(updates.getValue()).singleElement()
+                .satisfies(row -> assertThat(row).containsExactly("Item SKU-B", 20, 3, "AMBIENT", 100, "SKU-B"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void keepsTheLastRowOfADuplicateSku() {
+        when(repository.findExistingSkus(anyCollection())).thenReturn(Set.of());
+
+        int rows = loader.upsert(List.of(
+                LedgerFixtures.item(0, "SKU-A", 10, 0, 0),
+                LedgerFixtures.item(0, "SKU-A", 15, 0, 0)));
+
+        assertThat(rows).isEqualTo(1);
+        ArgumentCaptor<List<Object[]>> inserts = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT"), inserts.capture());
+        verify(jdbcTemplate, never()).batchUpdate(startsWith("UPDATE"), anyList());
+        assertThat(inserts.getValue()).singleElement().satisfies(row -> assertThat(row[2]).isEqualTo(15));
+    }
+}
@@ -0,0 +1,48 @@
+package com.inventory.service;
+
+import com.inventory.journal.InventoryEventLog;
+import com.inventory.model.InventoryItem;
+import com.inventory.repository.InventoryItemRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InventoryInitializerTest {
+
+    private final InventoryItemRepository repository = mock(InventoryItemRepository.class);
+    private final InventoryEventLog eventLog = mock(InventoryEventLog.class);
+    private final InventoryLedger ledger = LedgerFixtures.ledger(repository);
+    private final InventoryManager manager = new InventoryManager(ledger, mock(ReplenishmentPlanner.class), new OrderFlowTracker());
+    private final InventoryInitializer initializer = new InventoryInitializer(manager, mock(InventoryBulkLoader.class),
+            new SimpleMeterRegistry(), eventLog);
+
+    InventoryInitializerTest() {
+        ReflectionTestUtils.setField(initializer, "autoInitialize", false);
+        when(repository.findBySku(anyString())).thenReturn(Optional.empty());
+        when(repository.save(any(InventoryItem.class))).then(returnsFirstArg());
+    }
+
+    @Test
+    void restoresRecoveredOnHandQuantityAndReleasesReservations() {
+        // Orders are not persisted across restarts, so the reservations logged for them have no owner any more
+        when(eventLog.recoveredState()).thenReturn(new ConcurrentHashMap<>(Map.of("SKU-A", new int[]{80, 12})));
+
+        initializer.initialize();
+
+        InventoryItem restored = ledger.find("SKU-A").orElseThrow();
+        assertThat(restored.getQuantity()).isEqualTo(80);
+        assertThat(restored.getReservedQuantity()).isZero();
+        assertThat(restored.getAvailableQuantity()).isEqualTo(80);
+    }
+}
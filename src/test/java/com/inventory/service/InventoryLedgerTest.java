@@ -0,0 +1,163 @@
+package com.inventory.service;
+
+import com.inventory.model.InventoryItem;
+import com.inventory.repository.InventoryItemRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InventoryLedgerTest {
+
+    private final InventoryItemRepository repository = mock(InventoryItemRepository.class);
+    private final Map<String, InventoryItem> table = new ConcurrentHashMap<>();
+    private final List<List<InventoryItem>> flushes = new ArrayList<>();
+    private final InventoryLedger ledger;
+
+    InventoryLedgerTest() {
+        table.put("SKU-A", LedgerFixtures.item(1, "SKU-A", 10, 0, 0));
+        table.put("SKU-B", LedgerFixtures.item(2, "SKU-B", 20, 0, 0));
+        when(repository.findBySku(anyString())).thenAnswer(invocation ->
+                Optional.ofNullable(table.get(invocation.<String>getArgument(0))).map(InventoryLedger::copyOf));
+        when(repository.findBySkuIn(anyCollection())).thenAnswer(invocation -> {
+            List<InventoryItem> found = new ArrayList<>();
+            for (String sku : invocation.<Collection<String>>getArgument(0)) {
+                Optional.ofNullable(table.get(sku)).map(InventoryLedger::copyOf).ifPresent(found::add);
+            }
+            return found;
+        });
+        when(repository.saveAll(any())).thenAnswer(this::saveAll);
+        ledger = LedgerFixtures.ledger(repository);
+    }
+
+    @Test
+    void updateExistingAllSkipsUnknownSkusWithoutCreatingThem() {
+        List<InventoryItem> updated = ledger.updateExistingAll(Map.of(
+                "SKU-A", reserve(3),
+                "SKU-X", reserve(1)));
+
+        assertThat(updated).extracting(InventoryItem::getSku).containsExactly("SKU-A");
+        assertThat(ledger.find("SKU-A")).map(InventoryItem::getReservedQuantity).contains(3);
+        assertThat(ledger.find("SKU-X")).isEmpty();
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void updateExistingAllLeavesEverySkuUnchangedWhenAMutationThrows() {
+        assertThatThrownBy(() -> ledger.updateExistingAll(Map.of(
+                "SKU-A", reserve(3),
+                "SKU-B", item -> {
+                    throw new IllegalStateException("bad line");
+                })))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(ledger.find("SKU-A")).map(InventoryItem::getReservedQuantity).contains(0);
+        assertThat(ledger.find("SKU-B")).map(InventoryItem::getReservedQuantity).contains(0);
+        ledger.flush();
+        assertThat(flushes).isEmpty();
+    }
+
+    @Test
+    void findReadsThroughOnceAndNeverCreatesARow() {
+        assertThat(ledger.find("SKU-A")).map(InventoryItem::getQuantity).contains(10);
+        assertThat(ledger.find("SKU-A")).isPresent();
+        assertThat(ledger.find("SKU-X")).isEmpty();
+
+        verify(repository, times(1)).findBySku("SKU-A");
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void flushWritesChangedRowsInOneBatchAndAdoptsTheirVersions() {
+        ledger.updateExistingAll(Map.of("SKU-A", reserve(1), "SKU-B", reserve(2)));
+
+        ledger.flush();
+        ledger.flush();
+
+        assertThat(flushes).hasSize(1);
+        assertThat(flushes.get(0)).extracting(InventoryItem::getSku).containsExactlyInAnyOrder("SKU-A", "SKU-B");
+        assertThat(ledger.find("SKU-A")).map(InventoryItem::getVersion).contains(1L);
+        assertThat(table.get("SKU-B").getReservedQuantity()).isEqualTo(2);
+    }
+
+    @Test
+    void failedFlushKeepsRowsDirtyForTheNextFlush() {
+        ledger.updateExistingAll(Map.of("SKU-A", reserve(4)));
+        doThrow(new DataAccessResourceFailureException("database unavailable"))
+                .doAnswer(this::saveAll)
+                .when(repository).saveAll(any());
+
+        ledger.flush();
+        assertThat(table.get("SKU-A").getReservedQuantity()).isZero();
+        assertThat(flushes).isEmpty();
+
+        ledger.flush();
+        assertThat(table.get("SKU-A").getReservedQuantity()).isEqualTo(4);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedCleanEntriesAboveTheSizeBound() throws InterruptedException {
+        ReflectionTestUtils.setField(ledger, "maxEntries", 1);
+        ledger.find("SKU-A");
+        Thread.sleep(2);
+        ledger.find("SKU-B");
+
+        ledger.evict();
+        ledger.find("SKU-A");
+        ledger.find("SKU-B");
+
+        verify(repository, times(2)).findBySku("SKU-A");
+        verify(repository, times(1)).findBySku("SKU-B");
+    }
+
+    @Test
+    void neverEvictsAnEntryWithUnflushedChanges() {
+        ReflectionTestUtils.setField(ledger, "maxEntries", 0);
+        ledger.updateExistingAll(Map.of("SKU-A", reserve(5)));
+
+        ledger.evict();
+
+        assertThat(ledger.find("SKU-A")).map(InventoryItem::getReservedQuantity).contains(5);
+        ledger.flush();
+        assertThat(table.get("SKU-A").getReservedQuantity()).isEqualTo(5);
+    }
+
+    /**
+     * Writes to the in-memory table with the next version, as the repository would
+     */
+    private List<InventoryItem> saveAll(InvocationOnMock invocation) {
+        List<InventoryItem> saved = new ArrayList<>();
+        for (InventoryItem item : invocation.<Iterable<InventoryItem>>getArgument(0)) {
+            InventoryItem row = InventoryLedger.copyOf(item);
+            row.setVersion(item.getVersion() + 1);
+            table.put(row.getSku(), row);
+            saved.add(InventoryLedger.copyOf(row));
+        }
+        flushes.add(saved);
+        return saved;
+    }
+
+    private static Consumer<InventoryItem> reserve(int quantity) {
+        return item -> item.setReservedQuantity(item.getReservedQuantity() + quantity);
+    }
+}
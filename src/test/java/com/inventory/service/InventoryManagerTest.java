@@ -0,0 +1,89 @@
+package com.inventory.service;
+
+import com.inventory.message.InventoryCommandMessage;
+import com.inventory.message.InventoryUpdateMessage;
+import org.junit.jupiter.api.Test;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InventoryManagerTest {
+
+    private final InventoryLedger ledger = mock(InventoryLedger.class);
+    private final OrderFlowTracker tracker = new OrderFlowTracker();
+    private final InventoryManager manager = new InventoryManager(ledger, mock(ReplenishmentPlanner.class), tracker);
+
+    // Same attempts as the listener retry advice (RetryTemplate's default policy also makes 3)
+    private final RetryTemplate listenerRetry = new RetryTemplate();
+
+    InventoryManagerTest() {
+        ReflectionTestUtils.setField(manager, "listenerRetryEnabled", true);
+        ReflectionTestUtils.setField(manager, "listenerMaxAttempts", 3);
+    }
+
+    @Test
+    void settlesAFailingCommandOnceAfterTheLastAttempt() {
+        when(ledger.updateExistingAll(anyMap())).thenThrow(new IllegalStateException("row locked"));
+        tracker.commandsIssued(1);
+
+        assertThatThrownBy(() -> listenerRetry.execute(context -> {
+            manager.handleInventoryCommand(command());
+            return null;
+        })).isInstanceOf(IllegalStateException.class);
+
+        verify(ledger, times(3)).updateExistingAll(anyMap());
+        assertThat(tracker.inFlight()).isZero();
+    }
+
+    @Test
+    void settlesACommandThatSucceedsOnRetryOnce() {
+        when(ledger.updateExistingAll(anyMap()))
+                .thenThrow(new IllegalStateException("row locked"))
+                .thenReturn(List.of());
+        tracker.commandsIssued(1);
+
+        listenerRetry.execute(context -> {
+            manager.handleInventoryCommand(command());
+            return null;
+        });
+
+        assertThat(tracker.inFlight()).isZero();
+    }
+
+    @Test
+    void settlesEveryCommandOfAFailedBatchOnce() {
+        when(ledger.updateExistingAll(anyMap())).thenThrow(new IllegalStateException("row locked"));
+        tracker.commandsIssued(2);
+
+        assertThatThrownBy(() -> listenerRetry.execute(context -> {
+            manager.handleInventoryCommandBatch(List.of(command(), command()));
+            return null;
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(tracker.inFlight()).isZero();
+    }
+
+    @Test
+    void settlesAFailureOutsideTheRetryAdviceAtOnce() {
+        when(ledger.updateExistingAll(anyMap())).thenThrow(new IllegalStateException("row locked"));
+        tracker.commandsIssued(1);
+
+        assertThatThrownBy(() -> manager.handleInventoryCommand(command())).isInstanceOf(IllegalStateException.class);
+
+        assertThat(tracker.inFlight()).isZero();
+    }
+
+    private static InventoryCommandMessage command() {
+        return new InventoryCommandMessage("ORD-1",
+                List.of(new InventoryUpdateMessage("SKU-A", null, 2, "RESERVE", "ORD-1")));
+    }
+}
@@ -0,0 +1,51 @@
+package com.inventory.service;
+
+import com.inventory.journal.InventoryEventLog;
+import com.inventory.model.InventoryItem;
+import com.inventory.repository.InventoryItemRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Builds an InventoryLedger without Spring, configured as application.yml does (event log disabled)
+ */
+final class LedgerFixtures {
+
+    private LedgerFixtures() {
+    }
+
+    static InventoryLedger ledger(InventoryItemRepository repository) {
+        return ledger(repository, disabledEventLog());
+    }
+
+    static InventoryLedger ledger(InventoryItemRepository repository, InventoryEventLog eventLog) {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OptimisticRetryExecutor optimisticRetry = new OptimisticRetryExecutor(meterRegistry);
+        ReflectionTestUtils.setField(optimisticRetry, "maxAttempts", 5);
+        ReflectionTestUtils.setField(optimisticRetry, "initialBackoffMs", 1L);
+        ReflectionTestUtils.setField(optimisticRetry, "maxBackoffMs", 5L);
+        ReflectionTestUtils.setField(optimisticRetry, "skuTagLimit", 50);
+        optimisticRetry.registerMetrics();
+
+        InventoryLedger ledger = new InventoryLedger(repository, meterRegistry, optimisticRetry, eventLog);
+        ReflectionTestUtils.setField(ledger, "initialStock", 1000);
+        ReflectionTestUtils.setField(ledger, "lowStockThreshold", 100);
+        ReflectionTestUtils.setField(ledger, "flushBatchSize", 500);
+        ReflectionTestUtils.setField(ledger, "maxEntries", 100_000);
+        ReflectionTestUtils.setField(ledger, "ttlMs", 600_000L);
+        ledger.registerMetrics();
+        return ledger;
+    }
+
+    static InventoryEventLog disabledEventLog() {
+        InventoryEventLog eventLog = new InventoryEventLog(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(eventLog, "enabled", false);
+        eventLog.open();
+        return eventLog;
+    }
+
+    static InventoryItem item(long id, String sku, int quantity, int reserved, long version) {
+        return new InventoryItem(id, sku, "Item " + sku, quantity, reserved, "AMBIENT", 100, version);
+    }
+}
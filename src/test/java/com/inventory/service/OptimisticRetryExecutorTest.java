@@ -0,0 +1,68 @@
+package com.inventory.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OptimisticRetryExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OptimisticRetryExecutor executor = new OptimisticRetryExecutor(meterRegistry);
+
+    OptimisticRetryExecutorTest() {
+        ReflectionTestUtils.setField(executor, "maxAttempts", 3);
+        ReflectionTestUtils.setField(executor, "initialBackoffMs", 1L);
+        ReflectionTestUtils.setField(executor, "maxBackoffMs", 2L);
+        ReflectionTestUtils.setField(executor, "skuTagLimit", 2);
+        executor.registerMetrics();
+    }
+
+    @Test
+    void retriesAConflictUntilTheActionSucceeds() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = executor.execute("SKU-A", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("stale version");
+            }
+            return "written";
+        });
+
+        assertThat(result).isEqualTo("written");
+        assertThat(meterRegistry.counter("inventory_update_conflicts_total").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("inventory_update_retries_by_sku_total", "sku", "SKU-A").count()).isEqualTo(2);
+    }
+
+    @Test
+    void rethrowsOnceAttemptsAreExhausted() {
+        Runnable conflicting = () -> {
+            throw new OptimisticLockingFailureException("stale version");
+        };
+
+        assertThatThrownBy(() -> executor.execute("SKU-A", conflicting)).isInstanceOf(OptimisticLockingFailureException.class);
+
+        assertThat(meterRegistry.counter("inventory_update_retries_exhausted_total").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("inventory_update_conflicts_by_sku_total", "sku", "SKU-A").count()).isEqualTo(3);
+    }
+
+    @Test
+    void tagsOnlyTheFirstConflictingSkusIndividually() {
+        for (String sku : new String[] {"SKU-A", "SKU-B", "SKU-C", "SKU-D"}) {
+            AtomicInteger attempts = new AtomicInteger();
+            executor.execute(sku, () -> {
+                if (attempts.incrementAndGet() == 1) {
+                    throw new OptimisticLockingFailureException("stale version");
+                }
+            });
+        }
+
+        assertThat(meterRegistry.find("inventory_update_conflicts_by_sku_total").counters()).hasSize(3);
+        assertThat(meterRegistry.counter("inventory_update_conflicts_by_sku_total", "sku", "other").count()).isEqualTo(2);
+    }
+}
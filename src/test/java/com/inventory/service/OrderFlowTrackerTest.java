@@ -0,0 +1,57 @@
+package com.inventory.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderFlowTrackerTest {
+
+    private final OrderFlowTracker tracker = new OrderFlowTracker();
+
+    @Test
+    void countsOrdersAndCommandsUntilBothSettle() {
+        tracker.orderPublished();
+        tracker.commandsIssued(2);
+        tracker.orderSettled();
+        assertThat(tracker.inFlight()).isEqualTo(2);
+
+        tracker.commandsSettled(2);
+        assertThat(tracker.inFlight()).isZero();
+    }
+
+    @Test
+    void awaitDrainedTimesOutWhileSomethingIsInFlight() throws InterruptedException {
+        tracker.orderPublished();
+
+        assertThat(tracker.awaitDrained(20, TimeUnit.MILLISECONDS)).isFalse();
+    }
+
+    @Test
+    void awaitDrainedReturnsAtOnceWhenNothingIsInFlight() throws InterruptedException {
+        assertThat(tracker.awaitDrained(0, TimeUnit.MILLISECONDS)).isTrue();
+    }
+
+    @Test
+    void settlingTheLastCommandWakesAWaiter() throws Exception {
+        tracker.orderPublished();
+        tracker.commandsIssued(1);
+        tracker.orderSettled();
+
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return tracker.awaitDrained(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        });
+        Thread.sleep(20);
+        assertThat(waiter).isNotDone();
+
+        tracker.commandsSettled(1);
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+}
@@ -0,0 +1,64 @@
+package com.inventory.service;
+
+import com.inventory.model.InventoryItem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplenishmentPlannerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.parse("2024-01-13T08:00:00");
+
+    private final InventoryLedger ledger = mock(InventoryLedger.class);
+    private final SimulationClock clock = mock(SimulationClock.class);
+    private final ReplenishmentPlanner planner = new ReplenishmentPlanner(ledger, clock, new SimpleMeterRegistry());
+
+    ReplenishmentPlannerTest() {
+        ReflectionTestUtils.setField(planner, "replenishmentQuantity", 500);
+        ReflectionTestUtils.setField(planner, "batchSize", 100);
+        ReflectionTestUtils.setField(planner, "leadTimeMinutes", 30L);
+        planner.registerMetrics();
+        when(clock.getCurrentTime()).thenReturn(NOW);
+        when(clock.formatTime(any())).thenReturn("08:00:00");
+    }
+
+    @Test
+    void ordersALowStockSkuOnTheNextPlan() {
+        InventoryItem low = LedgerFixtures.item(1, "SKU-A", 50, 0, 0);
+        when(ledger.findAll(anyCollection())).thenReturn(List.of(low));
+
+        planner.lowStock(low);
+        planner.plan();
+
+        assertThat(planner.hasRequests()).isFalse();
+        assertThat(planner.nextDeliveryTime()).isEqualTo(NOW.plusMinutes(30));
+    }
+
+    @Test
+    void requeuesTheBatchWhenTheStockReadFails() {
+        InventoryItem low = LedgerFixtures.item(1, "SKU-A", 50, 0, 0);
+        when(ledger.findAll(anyCollection()))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenReturn(List.of(low));
+
+        planner.lowStock(low);
+        assertThatThrownBy(planner::plan).isInstanceOf(IllegalStateException.class);
+        assertThat(planner.hasRequests()).isTrue();
+        assertThat(planner.nextDeliveryTime()).isNull();
+
+        planner.plan();
+
+        assertThat(planner.hasRequests()).isFalse();
+        assertThat(planner.nextDeliveryTime()).isEqualTo(NOW.plusMinutes(30));
+    }
+}
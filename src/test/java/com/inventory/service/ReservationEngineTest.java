@@ -0,0 +1,105 @@
+package com.inventory.service;
+
+import com.inventory.model.InventoryItem;
+import com.inventory.repository.InventoryItemRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReservationEngineTest {
+
+    private final InventoryItemRepository repository = mock(InventoryItemRepository.class);
+
+    @Test
+    void reservesAllLinesOrNone() {
+        InventoryItem a = LedgerFixtures.item(1, "SKU-A", 10, 0, 0);
+        InventoryItem b = LedgerFixtures.item(2, "SKU-B", 1, 0, 0);
+        when(repository.findBySkuIn(anyCollection())).thenReturn(List.of(a, b));
+        InventoryLedger ledger = LedgerFixtures.ledger(repository);
+        ReservationEngine engine = new ReservationEngine(ledger);
+
+        ReservationEngine.ReservationResult result = engine.reserveAll("ORD-1", Map.of("SKU-A", 2, "SKU-B", 5));
+
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(result.getFailedSku()).isEqualTo("SKU-B");
+        assertThat(ledger.find("SKU-A")).map(InventoryItem::getReservedQuantity).contains(0);
+        assertThat(ledger.find("SKU-B")).map(InventoryItem::getReservedQuantity).contains(0);
+    }
+
+    @Test
+    void rejectsUnknownSkuWithoutCreatingIt() {
+        when(repository.findBySkuIn(anyCollection())).thenReturn(List.of());
+        when(repository.findBySku(anyString())).thenReturn(Optional.empty());
+        InventoryLedger ledger = LedgerFixtures.ledger(repository);
+
+        ReservationEngine.ReservationResult result =
+                new ReservationEngine(ledger).reserveAll("ORD-1", Map.of("SKU-X", 1));
+
+        assertThat(result.isUnknownSku()).isTrue();
+        assertThat(ledger.find("SKU-X")).isEmpty();
+    }
+
+    @Test
+    void reservingAFreshlyLoadedSkuLeavesTheLoadedEntityUntouchedWhileAFlushRuns() throws Exception {
+        // Stands in for the managed entity a load inside OrderManager's transaction returns
+        InventoryItem loaded = LedgerFixtures.item(1, "SKU-A", 10, 0, 3);
+        when(repository.findBySkuIn(anyCollection())).thenReturn(List.of(loaded));
+        when(repository.findBySku("SKU-A")).thenReturn(Optional.of(loaded));
+
+        CountDownLatch flushStarted = new CountDownLatch(1);
+        CountDownLatch releaseFlush = new CountDownLatch(1);
+        List<InventoryItem> written = new ArrayList<>();
+        when(repository.saveAll(any())).thenAnswer(invocation -> {
+            flushStarted.countDown();
+            releaseFlush.await(5, TimeUnit.SECONDS);
+            List<InventoryItem> saved = new ArrayList<>();
+            for (InventoryItem item : invocation.<Iterable<InventoryItem>>getArgument(0)) {
+                written.add(item);
+                saved.add(LedgerFixtures.item(item.getId(), item.getSku(), item.getQuantity(),
+                        item.getReservedQuantity(), item.getVersion() + 1));
+            }
+            return saved;
+        });
+
+        InventoryLedger ledger = LedgerFixtures.ledger(repository);
+        ReservationEngine engine = new ReservationEngine(ledger);
+        assertThat(engine.reserveAll("ORD-1", Map.of("SKU-A", 2)).isSuccess()).isTrue();
+
+        ExecutorService flusher = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> flush = flusher.submit(ledger::flush);
+            assertThat(flushStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(engine.reserveAll("ORD-2", Map.of("SKU-A", 3)).isSuccess()).isTrue();
+            releaseFlush.countDown();
+            flush.get(5, TimeUnit.SECONDS);
+        } finally {
+            flusher.shutdownNow();
+        }
+
+        // The loaded instance is never changed, so a transaction commit has nothing to write back
+        assertThat(loaded.getReservedQuantity()).isZero();
+        assertThat(loaded.getVersion()).isEqualTo(3L);
+        assertThat(written).hasSize(1).allSatisfy(item -> assertThat(item).isNotSameAs(loaded));
+
+        ledger.flush();
+        assertThat(written).hasSize(2);
+        assertThat(written.get(1).getReservedQuantity()).isEqualTo(5);
+        assertThat(written.get(1).getVersion()).isEqualTo(4L);
+        assertThat(ledger.find("SKU-A")).map(InventoryItem::getReservedQuantity).contains(5);
+    }
+}